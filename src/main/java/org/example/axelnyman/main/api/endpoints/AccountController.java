@@ -0,0 +1,159 @@
+package org.example.axelnyman.main.api.endpoints;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountOverviewResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.CreateAccountRequest;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.RecordBalanceRequest;
+import org.example.axelnyman.main.infrastructure.security.CurrentUser;
+import org.example.axelnyman.main.infrastructure.security.UserPrincipal;
+import org.example.axelnyman.main.infrastructure.streaming.NdjsonResponseWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Accounts", description = "Bank accounts and their balance history")
+@SecurityRequirement(name = "bearerAuth")
+public class AccountController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
+    private final IDomainService domainService;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
+
+    public AccountController(IDomainService domainService, NdjsonResponseWriter ndjsonResponseWriter) {
+        this.domainService = domainService;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
+    }
+
+    @PostMapping("/accounts")
+    @Operation(summary = "Create account", description = "Create a bank account owned by the authenticated user and shared with their household")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Account created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid account name"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    public ResponseEntity<AccountResponse> createAccount(
+            @CurrentUser UserPrincipal currentUser,
+            @Valid @RequestBody CreateAccountRequest request) {
+        AccountResponse response = domainService.createAccount(currentUser.getUserId(), request.accountName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/accounts")
+    @Operation(summary = "Get household accounts", description = "Active accounts of the household with their current balance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Accounts retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    public ResponseEntity<List<AccountOverviewResponse>> getAccounts(@CurrentUser UserPrincipal currentUser) {
+        return ResponseEntity.ok(domainService.getHouseholdAccounts(currentUser.getHouseholdId()));
+    }
+
+    @PutMapping("/accounts/{accountId}/balances/{balanceDate}")
+    @Operation(summary = "Record balance", description = "Record the balance of an account on a day (yyyy-MM-dd), replacing one already recorded for that day")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balance recorded successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid balance amount or date"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public ResponseEntity<BalanceResponse> recordBalance(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long accountId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate balanceDate,
+            @Valid @RequestBody RecordBalanceRequest request) {
+        return ResponseEntity.ok(domainService.recordBalance(
+                currentUser.getHouseholdId(), accountId, balanceDate, request.balanceAmount()));
+    }
+
+    @PostMapping(value = "/accounts/{accountId}/balances/import", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import balances", description = "Record many balances from a UTF-8 CSV (balanceDate,balanceAmount) or NDJSON body, " +
+            "replacing ones already recorded for the same days. Invalid lines are skipped and reported")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balances imported; the report counts imported and rejected lines"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Account not found"),
+            @ApiResponse(responseCode = "415", description = "Body is neither text/csv nor application/x-ndjson")
+    })
+    public ResponseEntity<BalanceImportResponse> importBalances(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long accountId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+        BalanceImportFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)
+                ? BalanceImportFormat.NDJSON
+                : BalanceImportFormat.CSV;
+        return ResponseEntity.ok(domainService.importBalances(currentUser.getHouseholdId(), accountId, body, format));
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/balances", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get balance history", description = "Recorded balances of an account, newest first, a page at a time. " +
+            "The next page, if any, is linked in the Link header (rel=\"next\")")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balance history page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public ResponseEntity<List<BalanceResponse>> getBalanceHistory(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return CursorPageResponses.toResponse(
+                domainService.getBalanceHistory(currentUser.getHouseholdId(), accountId, cursor, limit));
+    }
+
+    @GetMapping(value = "/accounts/{accountId}/balances", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export balance history", description = "Every recorded balance of an account, newest first, " +
+            "streamed as one JSON object per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Balance history streamed"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Account not found")
+    })
+    public void exportBalanceHistory(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long accountId,
+            HttpServletResponse response) throws IOException {
+        ndjsonResponseWriter.<BalanceResponse>write(response, rows ->
+                domainService.exportBalanceHistory(currentUser.getHouseholdId(), accountId, rows));
+    }
+
+    @GetMapping("/accounts/{accountId}/balances/current")
+    @Operation(summary = "Get current balance", description = "The balance recorded for the latest day")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Current balance retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Account not found or no balance recorded yet")
+    })
+    public ResponseEntity<BalanceResponse> getCurrentBalance(
+            @CurrentUser UserPrincipal currentUser,
+            @PathVariable Long accountId) {
+        return domainService.getCurrentBalance(currentUser.getHouseholdId(), accountId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
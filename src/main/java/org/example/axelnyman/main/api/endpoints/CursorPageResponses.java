@@ -0,0 +1,30 @@
+package org.example.axelnyman.main.api.endpoints;
+
+import org.example.axelnyman.main.domain.dtos.PageDtos.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated lists are returned as a plain JSON array, with the URL of the next page, if
+ * any, in a {@code Link: <...>; rel="next"} header carrying the opaque cursor.
+ */
+final class CursorPageResponses {
+
+    private CursorPageResponses() {
+        // Prevent instantiation
+    }
+
+    static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+}
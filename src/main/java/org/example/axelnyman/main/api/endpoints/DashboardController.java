@@ -0,0 +1,95 @@
+package org.example.axelnyman.main.api.endpoints;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.dtos.DashboardDtos.DashboardResponse;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+import org.example.axelnyman.main.infrastructure.concurrency.FanOutExecutor;
+import org.example.axelnyman.main.infrastructure.concurrency.FanOutExecutor.Section;
+import org.example.axelnyman.main.infrastructure.security.CurrentUser;
+import org.example.axelnyman.main.infrastructure.security.UserPrincipal;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RestController
+@RequestMapping("/api")
+@Tag(name = "Dashboard", description = "Everything the frontend needs on startup in one request")
+@SecurityRequirement(name = "bearerAuth")
+public class DashboardController {
+
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final IDomainService domainService;
+    private final FanOutExecutor fanOutExecutor;
+
+    public DashboardController(IDomainService domainService, FanOutExecutor fanOutExecutor) {
+        this.domainService = domainService;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @GetMapping("/dashboard")
+    @Operation(summary = "Get dashboard", description = "Current user profile, household, household members and pending invitations, read concurrently. Per-section durations are reported in the Server-Timing header")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Dashboard retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent requests, retry after the Retry-After delay")
+    })
+    public CompletableFuture<ResponseEntity<DashboardResponse>> getDashboard(@CurrentUser UserPrincipal currentUser) {
+        long startedAt = System.nanoTime();
+        Long userId = currentUser.getUserId();
+        Long householdId = currentUser.getHouseholdId();
+
+        CompletableFuture<Section<Optional<UserResponse>>> profile = fanOutExecutor.submit("profile",
+                () -> domainService.getUserProfile(userId));
+        CompletableFuture<Section<Optional<HouseholdResponse>>> household = fanOutExecutor.submit("household",
+                () -> householdId == null ? Optional.empty() : domainService.getHouseholdDetails(householdId));
+        CompletableFuture<Section<List<UserResponse>>> members = fanOutExecutor.submit("members",
+                () -> householdId == null ? List.of() : domainService.getHouseholdUsers(householdId));
+        CompletableFuture<Section<List<InvitationResponse>>> invitations = fanOutExecutor.submit("invitations",
+                () -> domainService.getUserPendingInvitations(userId));
+
+        return CompletableFuture.allOf(profile, household, members, invitations).thenApply(ignored -> {
+            String serverTiming = serverTiming(
+                    List.of(profile.join(), household.join(), members.join(), invitations.join()),
+                    Duration.ofNanos(System.nanoTime() - startedAt));
+            return profile.join().value()
+                    .map(user -> ResponseEntity.ok()
+                            .header(SERVER_TIMING, serverTiming)
+                            .body(new DashboardResponse(
+                                    user,
+                                    household.join().value().orElse(null),
+                                    members.join().value(),
+                                    invitations.join().value())))
+                    .orElse(ResponseEntity.notFound().header(SERVER_TIMING, serverTiming).build());
+        });
+    }
+
+    // e.g. "profile;dur=1.8, household;dur=0.4, members;dur=0.3, invitations;dur=2.1, total;dur=2.6"
+    private static String serverTiming(List<Section<?>> sections, Duration total) {
+        return Stream.concat(
+                        sections.stream().map(section -> timing(section.name(), section.duration())),
+                        Stream.of(timing("total", total)))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String timing(String name, Duration duration) {
+        return String.format(Locale.ROOT, "%s;dur=%.1f", name, duration.toNanos() / 1_000_000.0);
+    }
+}
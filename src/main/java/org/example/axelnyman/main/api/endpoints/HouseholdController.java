@@ -6,6 +6,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.MonthlyBalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthGranularity;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthPoint;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.CreateInvitationRequest;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdUpdateResponse;
@@ -13,17 +16,28 @@ import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.UpdateHouseholdRequest;
 import org.example.axelnyman.main.infrastructure.security.CurrentUser;
 import org.example.axelnyman.main.infrastructure.security.UserPrincipal;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
 @RestController
 @RequestMapping("/api")
 @Tag(name = "Households", description = "Household management endpoints")
 @SecurityRequirement(name = "bearerAuth")
 public class HouseholdController {
 
+    // Lets clients store responses but revalidate them with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final IDomainService domainService;
 
     public HouseholdController(IDomainService domainService) {
@@ -34,12 +48,18 @@ public class HouseholdController {
     @Operation(summary = "Get household information", description = "Retrieve household information and active members for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Household information retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Household unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Authentication required"),
             @ApiResponse(responseCode = "404", description = "Household not found")
     })
-    public ResponseEntity<HouseholdResponse> getHousehold(@CurrentUser UserPrincipal currentUser) {
+    public ResponseEntity<HouseholdResponse> getHousehold(@CurrentUser UserPrincipal currentUser, WebRequest request) {
+        Optional<String> eTag = domainService.getHouseholdETag(currentUser.getHouseholdId());
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            // 304 is already set, without loading the household
+            return null;
+        }
         return domainService.getHouseholdDetails(currentUser.getHouseholdId())
-                .map(household -> ResponseEntity.ok(household))
+                .map(household -> ResponseEntity.ok().cacheControl(REVALIDATE).body(household))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -60,6 +80,43 @@ public class HouseholdController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/households/net-worth")
+    @Operation(summary = "Get household net worth", description = "Total balance of the household's active accounts per day or month, " +
+            "each account carried forward from its last recorded balance. Defaults to monthly points over the last year")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Net worth retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or granularity"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Household not found")
+    })
+    public ResponseEntity<List<NetWorthPoint>> getNetWorth(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") NetWorthGranularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        return ResponseEntity.ok(domainService.getHouseholdNetWorth(currentUser.getHouseholdId(), start, end, granularity));
+    }
+
+    @GetMapping("/households/monthly-balances")
+    @Operation(summary = "Get monthly account balances", description = "Closing, lowest, highest and average balance " +
+            "of each active household account per month with recorded balances. Defaults to the last twelve months")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Monthly balances retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month range"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "404", description = "Household not found")
+    })
+    public ResponseEntity<List<MonthlyBalanceResponse>> getMonthlyBalances(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        return ResponseEntity.ok(domainService.getHouseholdMonthlyBalances(currentUser.getHouseholdId(), start, end));
+    }
+
     @PostMapping("/households/invitations")
     @Operation(summary = "Create household invitation", description = "Invite another user to join the household by email address")
     @ApiResponses(value = {
@@ -5,15 +5,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.example.axelnyman.main.domain.abstracts.IDomainService;
 import org.example.axelnyman.main.domain.dtos.UserDtos.*;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.*;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
 import org.example.axelnyman.main.infrastructure.security.CurrentUser;
 import org.example.axelnyman.main.infrastructure.security.UserPrincipal;
+import org.example.axelnyman.main.infrastructure.streaming.InvitationStreamRegistry;
+import org.example.axelnyman.main.infrastructure.streaming.NdjsonResponseWriter;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
@@ -21,10 +31,20 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    // Lets clients store responses but revalidate them with If-None-Match on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+
     private final IDomainService domainService;
+    private final InvitationStreamRegistry invitationStreamRegistry;
+    private final NdjsonResponseWriter ndjsonResponseWriter;
 
-    public UserController(IDomainService domainService) {
+    public UserController(IDomainService domainService, InvitationStreamRegistry invitationStreamRegistry,
+                          NdjsonResponseWriter ndjsonResponseWriter) {
         this.domainService = domainService;
+        this.invitationStreamRegistry = invitationStreamRegistry;
+        this.ndjsonResponseWriter = ndjsonResponseWriter;
     }
 
     @GetMapping("/users/{id}")
@@ -44,23 +64,33 @@ public class UserController {
     @Operation(summary = "Get household users", description = "Retrieve all active users in the authenticated user's household")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Household users retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Household users unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
-    public ResponseEntity<List<UserResponse>> getHouseholdUsers(@CurrentUser UserPrincipal currentUser) {
+    public ResponseEntity<List<UserResponse>> getHouseholdUsers(@CurrentUser UserPrincipal currentUser, WebRequest request) {
+        Optional<String> eTag = domainService.getHouseholdETag(currentUser.getHouseholdId());
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         List<UserResponse> users = domainService.getHouseholdUsers(currentUser.getHouseholdId());
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(users);
     }
 
     @GetMapping("/users/me")
     @Operation(summary = "Get current user profile", description = "Get the currently authenticated user's profile information including household details")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Current user profile retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Profile unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Authentication required"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserResponse> getCurrentUser(@CurrentUser UserPrincipal currentUser) {
+    public ResponseEntity<UserResponse> getCurrentUser(@CurrentUser UserPrincipal currentUser, WebRequest request) {
+        Optional<String> eTag = domainService.getUserProfileETag(currentUser.getUserId());
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
         return domainService.getUserProfile(currentUser.getUserId())
-                .map(profile -> ResponseEntity.ok(profile))
+                .map(profile -> ResponseEntity.ok().cacheControl(REVALIDATE).body(profile))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -82,10 +112,57 @@ public class UserController {
     @Operation(summary = "Get user's pending invitations", description = "Retrieve all pending household invitations for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Pending invitations retrieved successfully"),
+            @ApiResponse(responseCode = "304", description = "Pending invitations unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Authentication required")
     })
-    public ResponseEntity<List<InvitationResponse>> getUserInvitations(@CurrentUser UserPrincipal currentUser) {
+    public ResponseEntity<List<InvitationResponse>> getUserInvitations(@CurrentUser UserPrincipal currentUser, WebRequest request) {
+        if (request.checkNotModified(domainService.getUserPendingInvitationsETag(currentUser.getUserId()))) {
+            return null;
+        }
         List<InvitationResponse> invitations = domainService.getUserPendingInvitations(currentUser.getUserId());
-        return ResponseEntity.ok(invitations);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(invitations);
+    }
+
+    @GetMapping(value = "/users/me/invitations/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get user's invitation history", description = "Invitations sent to the authenticated user with a status, " +
+            "newest first, a page at a time. The next page, if any, is linked in the Link header (rel=\"next\")")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invitation history page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid status, cursor or limit"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    public ResponseEntity<List<InvitationResponse>> getInvitationHistory(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam InvitationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int limit) {
+        return CursorPageResponses.toResponse(
+                domainService.getUserInvitationHistory(currentUser.getUserId(), status, cursor, limit));
+    }
+
+    @GetMapping(value = "/users/me/invitations/history", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export user's invitation history", description = "Every invitation sent to the authenticated user " +
+            "with a status, newest first, streamed as one JSON object per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Invitation history streamed"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid status"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    public void exportInvitationHistory(
+            @CurrentUser UserPrincipal currentUser,
+            @RequestParam InvitationStatus status,
+            HttpServletResponse response) throws IOException {
+        ndjsonResponseWriter.<InvitationResponse>write(response, rows ->
+                domainService.exportUserInvitationHistory(currentUser.getUserId(), status, rows));
+    }
+
+    @GetMapping(value = "/users/me/invitations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream invitation events", description = "Server-Sent Events stream of invitation-created and invitation-status-changed events for the authenticated user, instead of polling the pending invitations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "401", description = "Authentication required")
+    })
+    public SseEmitter streamInvitations(@CurrentUser UserPrincipal currentUser) {
+        return invitationStreamRegistry.subscribe(currentUser.getUserId());
     }
 }
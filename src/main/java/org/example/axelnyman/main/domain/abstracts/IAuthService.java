@@ -2,13 +2,16 @@ package org.example.axelnyman.main.domain.abstracts;
 
 import org.example.axelnyman.main.domain.dtos.UserDtos.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Authentication Service - Responsible for authentication and user lifecycle operations
  * This service handles user registration, login, password management, and other
  * authentication-specific business logic.
+ * Password hashing runs off the calling thread, so results are returned as futures.
  */
 public interface IAuthService {
-    AuthResponse registerUser(RegisterRequest request);
+    CompletableFuture<AuthResponse> registerUser(RegisterRequest request);
     
-    AuthResponse login(LoginRequest loginRequest);
+    CompletableFuture<AuthResponse> login(LoginRequest loginRequest);
 }
\ No newline at end of file
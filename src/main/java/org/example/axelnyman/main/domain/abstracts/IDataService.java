@@ -1,16 +1,37 @@
 package org.example.axelnyman.main.domain.abstracts;
 
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
-
+import java.util.function.Consumer;
+
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountOverviewResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.MonthlyBalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthGranularity;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthPoint;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.ExpiredInvitation;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.LoginCredentials;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+import org.example.axelnyman.main.domain.extensions.CursorExtensions.InvitationCursor;
+import org.example.axelnyman.main.domain.model.BankAccount;
 import org.example.axelnyman.main.domain.model.Household;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
 import org.example.axelnyman.main.domain.model.User;
 
 /**
  * Data Access Service - Responsible for direct database operations
  * This service provides a clean abstraction over repository operations
  * and should not contain business logic.
+ * Query methods run in read-only transactions, which are served by the read
+ * replica when one is configured.
  */
 public interface IDataService {
     User saveUser(User user);
@@ -19,25 +40,134 @@ public interface IDataService {
 
     boolean deleteUserById(Long id);
 
+    /**
+     * Whether any user, soft-deleted ones included, has this email. Emails the in-memory filter of
+     * registered emails has never seen are answered without a query.
+     */
     boolean userExistsByEmailIncludingDeleted(String email);
 
+    /**
+     * Inserts a new user together with its (new) household in one transaction, relying on the
+     * unique email constraint instead of a pre-check. Returns empty when the email is already taken.
+     */
+    Optional<User> insertUserWithHousehold(User user);
+
     Optional<User> findActiveUserByEmail(String email);
 
-    Household saveHousehold(Household household);
+    /** Login fields of the active user with this email, household name joined in, without loading the entity. */
+    Optional<LoginCredentials> getActiveLoginCredentialsByEmail(String email);
 
-    List<User> getActiveUsersByHouseholdId(Long householdId);
+    boolean replaceUserPasswordHash(Long userId, String currentHash, String newHash);
 
-    Optional<User> getActiveUserByIdAndHouseholdId(Long id, Long householdId);
+    Household saveHousehold(Household household);
 
-    Optional<Household> getHouseholdWithActiveMembers(Long householdId);
+    /*
+     * User reads for the API select only the response columns, with the household name joined in,
+     * instead of loading User entities.
+     */
+    Optional<UserResponse> getUserResponseById(Long id);
 
-    Optional<Household> getHouseholdById(Long householdId);
+    List<UserResponse> getActiveUserResponsesByHouseholdId(Long householdId);
+
+    Optional<UserResponse> getActiveUserResponseByIdAndHouseholdId(Long id, Long householdId);
 
-    HouseholdInvitation saveHouseholdInvitation(HouseholdInvitation invitation);
+    Optional<User> getActiveUserWithHousehold(Long id, Long householdId);
 
-    Optional<HouseholdInvitation> findActiveInvitationByHouseholdAndUser(Long householdId, Long invitedUserId);
+    Optional<Household> getHouseholdWithActiveMembers(Long householdId);
 
-    int expireOutdatedInvitations();
+    Optional<Household> getHouseholdById(Long householdId);
 
-    List<HouseholdInvitation> getPendingNonExpiredInvitationsForUser(Long userId);
+    boolean householdExists(Long householdId);
+
+    /*
+     * Version tags read without loading entities: each changes whenever the corresponding response
+     * would. Used for ETags.
+     */
+    Optional<String> getHouseholdVersionTag(Long householdId);
+
+    Optional<String> getUserProfileVersionTag(Long userId);
+
+    String getPendingNonExpiredInvitationsVersionTagForUser(Long userId);
+
+    /**
+     * Inserts a new pending invitation, relying on the unique constraint instead of a pre-check.
+     * Returns empty when the invited user already has a pending invitation to the household.
+     */
+    Optional<HouseholdInvitation> insertPendingInvitation(HouseholdInvitation invitation);
+
+    /**
+     * Marks up to {@code batchSize} pending invitations past their expiry as expired, in its own
+     * transaction. Rows locked by a concurrent sweep are skipped. Returns the invitations updated.
+     */
+    List<ExpiredInvitation> expireOutdatedInvitations(int batchSize);
+
+    /**
+     * Pending, unexpired invitations for a user, newest first, read straight into response DTOs
+     * with household and inviter joined in the same statement.
+     */
+    List<InvitationResponse> getPendingNonExpiredInvitationResponsesForUser(Long userId);
+
+    /**
+     * Up to {@code limit} invitations sent to a user with {@code status}, newest first, starting
+     * after {@code after}, or with the newest when it is null.
+     */
+    List<InvitationResponse> getInvitationResponsePage(Long invitedUserId, InvitationStatus status,
+            InvitationCursor after, int limit);
+
+    /** Like {@link #streamBalanceResponses}, for every invitation sent to a user with {@code status}. */
+    void streamInvitationResponses(Long invitedUserId, InvitationStatus status, Consumer<InvitationResponse> action);
+
+    BankAccount saveBankAccount(BankAccount account);
+
+    boolean isActiveBankAccountInHousehold(Long accountId, Long householdId);
+
+    /** Active accounts of the household's members with their latest balance, one row per account. */
+    List<AccountOverviewResponse> getActiveAccountOverviewsByHouseholdId(Long householdId);
+
+    /** Ids of all accounts, active or not, above {@code afterId} in order, at most {@code limit}. */
+    List<Long> getBankAccountIdsAfter(Long afterId, int limit);
+
+    /**
+     * Records the balance of an account on a day, replacing one already recorded for that day, and
+     * moves the account's latest balance forward and recomputes its monthly rollup in the same
+     * transaction.
+     */
+    void recordAccountBalance(Long accountId, BigDecimal balanceAmount, LocalDate balanceDate);
+
+    /**
+     * Imports balance rows read from {@code reader} in one transaction: invalid lines are rejected
+     * and reported, the rest are upserted like {@link #recordAccountBalance}.
+     */
+    BalanceImportResponse importAccountBalances(Long accountId, Reader reader, BalanceImportFormat format);
+
+    /**
+     * Up to {@code limit} balances of an account, newest first, starting after the day
+     * {@code afterBalanceDate}, or with the latest day when it is null.
+     */
+    List<BalanceResponse> getBalanceResponsePage(Long accountId, LocalDate afterBalanceDate, int limit);
+
+    /**
+     * Passes every balance of an account to {@code action}, newest first, as it is read from a
+     * database cursor, inside one read-only transaction.
+     */
+    void streamBalanceResponses(Long accountId, Consumer<BalanceResponse> action);
+
+    Optional<BalanceResponse> getLatestBalanceResponseByAccountId(Long accountId);
+
+    /**
+     * One point per day or month from the bucket containing {@code from} to {@code to}: the sum of
+     * every active household account's balance, each carried forward from its last recorded day.
+     */
+    List<NetWorthPoint> getNetWorthPointsByHouseholdId(Long householdId, LocalDate from, LocalDate to,
+            NetWorthGranularity granularity);
+
+    /** Month-end figures of the household's active accounts from {@code from} to {@code to}, read from the monthly rollups. */
+    List<MonthlyBalanceResponse> getMonthlyBalancesByHouseholdId(Long householdId, YearMonth from, YearMonth to);
+
+    /**
+     * Recomputes the monthly rollups of the given accounts from {@code from} to {@code to} from
+     * their balances, in one transaction, dropping months left without balances. Returns the number
+     * of account months written.
+     */
+    int rebuildMonthlyBalances(List<Long> accountIds, YearMonth from, YearMonth to);
 }
@@ -1,10 +1,18 @@
 package org.example.axelnyman.main.domain.abstracts;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.example.axelnyman.main.domain.dtos.AccountDtos.*;
 import org.example.axelnyman.main.domain.dtos.UserDtos.*;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.*;
+import org.example.axelnyman.main.domain.dtos.PageDtos.CursorPage;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
 
 /**
  * Domain Service - Responsible for general business operations
@@ -29,4 +37,49 @@ public interface IDomainService {
     InvitationResponse createHouseholdInvitation(Long householdId, Long invitedByUserId, String email);
 
     List<InvitationResponse> getUserPendingInvitations(Long userId);
+
+    /** A page of the invitations sent to a user with {@code status}, newest first; see {@link #getBalanceHistory}. */
+    CursorPage<InvitationResponse> getUserInvitationHistory(Long userId, InvitationStatus status, String cursor, int limit);
+
+    void exportUserInvitationHistory(Long userId, InvitationStatus status, Consumer<InvitationResponse> action);
+
+    /*
+     * Weak ETags for the responses above, derived from ids and version columns without loading
+     * entities. Empty when the resource does not exist.
+     */
+    Optional<String> getHouseholdETag(Long householdId);
+
+    Optional<String> getUserProfileETag(Long userId);
+
+    String getUserPendingInvitationsETag(Long userId);
+
+    /*
+     * Bank accounts are shared by their household: they are reachable through any active member
+     * linked to them. Accounts outside the household raise AccountNotFoundException.
+     */
+    AccountResponse createAccount(Long userId, String accountName);
+
+    List<AccountOverviewResponse> getHouseholdAccounts(Long householdId);
+
+    BalanceResponse recordBalance(Long householdId, Long accountId, LocalDate balanceDate, BigDecimal balanceAmount);
+
+    /** Imports UTF-8 balance rows from {@code body}, reading it as it arrives. */
+    BalanceImportResponse importBalances(Long householdId, Long accountId, InputStream body, BalanceImportFormat format);
+
+    /**
+     * A page of up to {@code limit} balances, newest first, after {@code cursor} (the first page when
+     * null). Raises InvalidPageRequestException for a malformed cursor or a limit out of range.
+     */
+    CursorPage<BalanceResponse> getBalanceHistory(Long householdId, Long accountId, String cursor, int limit);
+
+    /** Checks access, then passes the whole balance history to {@code action}, newest first, as it is read. */
+    void exportBalanceHistory(Long householdId, Long accountId, Consumer<BalanceResponse> action);
+
+    Optional<BalanceResponse> getCurrentBalance(Long householdId, Long accountId);
+
+    /** Raises InvalidDateRangeException when {@code from} is after {@code to} or the range has too many points. */
+    List<NetWorthPoint> getHouseholdNetWorth(Long householdId, LocalDate from, LocalDate to, NetWorthGranularity granularity);
+
+    /** Raises InvalidDateRangeException when {@code from} is after {@code to} or the range has too many months. */
+    List<MonthlyBalanceResponse> getHouseholdMonthlyBalances(Long householdId, YearMonth from, YearMonth to);
 }
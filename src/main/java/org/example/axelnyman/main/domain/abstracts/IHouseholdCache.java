@@ -0,0 +1,28 @@
+package org.example.axelnyman.main.domain.abstracts;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+
+/**
+ * Household Cache - Short-lived cache of household details, member lists and their version tags,
+ * keyed by household id.
+ * Reads go through it with a loader for misses; writes that change a household or its members
+ * evict the household's entries.
+ */
+public interface IHouseholdCache {
+
+    Optional<HouseholdResponse> getDetails(Long householdId, Function<Long, Optional<HouseholdResponse>> loader);
+
+    List<UserResponse> getMembers(Long householdId, Function<Long, List<UserResponse>> loader);
+
+    Optional<String> getVersionTag(Long householdId, Function<Long, Optional<String>> loader);
+
+    /** Evicts the household's entries now and, inside a transaction, again after it commits. */
+    void evict(Long householdId);
+
+    void evictAll();
+}
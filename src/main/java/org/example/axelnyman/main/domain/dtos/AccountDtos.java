@@ -0,0 +1,101 @@
+package org.example.axelnyman.main.domain.dtos;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+public class AccountDtos {
+
+    public record CreateAccountRequest(
+            @NotBlank(message = "Account name cannot be empty")
+            @Size(max = 255, message = "Account name cannot exceed 255 characters")
+            String accountName
+    ) {}
+
+    public record AccountResponse(
+            Long id,
+            String accountName,
+            LocalDateTime createdAt
+    ) {}
+
+    /** An account with its current balance; both balance fields are null before the first one is recorded. */
+    public record AccountOverviewResponse(
+            Long id,
+            String accountName,
+            BigDecimal currentBalance,
+            LocalDate balanceDate
+    ) {}
+
+    public record RecordBalanceRequest(
+            @NotNull(message = "Balance amount is required")
+            @Digits(integer = 13, fraction = 2, message = "Balance amount must have at most 13 digits and 2 decimals")
+            BigDecimal balanceAmount
+    ) {}
+
+    public record BalanceResponse(
+            Long accountId,
+            BigDecimal balanceAmount,
+            LocalDate balanceDate
+    ) {}
+
+    public enum BalanceImportFormat {
+        CSV,
+        NDJSON
+    }
+
+    /** Outcome of a balance import; {@code rejections} lists only the first rejected lines. */
+    public record BalanceImportResponse(
+            long importedRows,
+            long rejectedRows,
+            List<RejectedRow> rejections,
+            long durationMillis,
+            long rowsPerSecond
+    ) {}
+
+    public record RejectedRow(
+            long line,
+            String reason
+    ) {}
+
+    public enum NetWorthGranularity {
+        DAY("day"),
+        MONTH("month");
+
+        private final String unit;
+
+        NetWorthGranularity(String unit) {
+            this.unit = unit;
+        }
+
+        /** The PostgreSQL {@code date_trunc} unit of one bucket. */
+        public String unit() {
+            return unit;
+        }
+    }
+
+    /** The household's total balance at the end of the day or month starting on {@code date}. */
+    public record NetWorthPoint(
+            LocalDate date,
+            BigDecimal netWorth
+    ) {}
+
+    /** Month-end figures of one account over the balances recorded in {@code month}. */
+    public record MonthlyBalanceResponse(
+            Long accountId,
+            String accountName,
+            YearMonth month,
+            BigDecimal closingBalance,
+            LocalDate closingDate,
+            BigDecimal minBalance,
+            BigDecimal maxBalance,
+            BigDecimal averageBalance,
+            int balanceCount
+    ) {}
+}
@@ -0,0 +1,17 @@
+package org.example.axelnyman.main.domain.dtos;
+
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+
+import java.util.List;
+
+public class DashboardDtos {
+
+    public record DashboardResponse(
+            UserResponse profile,
+            HouseholdResponse household,
+            List<UserResponse> members,
+            List<InvitationResponse> invitations
+    ) {}
+}
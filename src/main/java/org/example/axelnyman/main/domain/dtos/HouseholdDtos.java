@@ -47,7 +47,30 @@ public class HouseholdDtos {
             String householdName,
             String invitedEmail,
             UserMemberResponse invitedBy,
+            LocalDateTime createdAt,
             LocalDateTime expiresAt,
             String status
+    ) {
+        // Flat form used by JPQL constructor expressions, which cannot build the nested inviter
+        public InvitationResponse(Long id, Long householdId, String householdName, String invitedEmail,
+                                  Long invitedById, String invitedByFirstName, String invitedByLastName,
+                                  String invitedByEmail, LocalDateTime invitedByJoinedAt,
+                                  LocalDateTime createdAt, LocalDateTime expiresAt, Enum<?> status) {
+            this(id, householdId, householdName, invitedEmail,
+                    new UserMemberResponse(invitedById, invitedByFirstName, invitedByLastName,
+                            invitedByEmail, invitedByJoinedAt),
+                    createdAt, expiresAt, status.toString());
+        }
+    }
+
+    public record InvitationStatusResponse(
+            Long id,
+            String status
+    ) {}
+
+    /** An invitation the expiry sweep has just marked expired, with the user it was sent to. */
+    public record ExpiredInvitation(
+            Long id,
+            Long invitedUserId
     ) {}
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package org.example.axelnyman.main.domain.dtos;
+
+import java.util.List;
+
+public class PageDtos {
+
+    /** One page of a keyset-paginated list; {@code nextCursor} is null on the last page. */
+    public record CursorPage<T>(
+            List<T> items,
+            String nextCursor
+    ) {}
+}
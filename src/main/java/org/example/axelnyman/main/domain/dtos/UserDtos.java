@@ -40,6 +40,29 @@ public class UserDtos {
             String email,
             HouseholdDtos.SimpleHouseholdResponse household,
             LocalDateTime createdAt
+    ) {
+        // Flat form used by JPQL constructor expressions; a user without a household has none
+        public UserResponse(Long id, String firstName, String lastName, String email,
+                            Long householdId, String householdName, LocalDateTime createdAt) {
+            this(id, firstName, lastName, email,
+                    householdId == null ? null : new HouseholdDtos.SimpleHouseholdResponse(householdId, householdName),
+                    createdAt);
+        }
+    }
+
+    /*
+     * Everything login needs, read in one select. Carries the password hash, so it is never
+     * returned by the API.
+     */
+    public record LoginCredentials(
+            Long id,
+            String firstName,
+            String lastName,
+            String email,
+            String hashedPassword,
+            Long householdId,
+            String householdName,
+            LocalDateTime createdAt
     ) {}
 
     public record AuthResponse(
@@ -0,0 +1,7 @@
+package org.example.axelnyman.main.domain.events;
+
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+
+/** Published once a new household invitation has been stored. */
+public record InvitationCreatedEvent(Long invitedUserId, InvitationResponse invitation) {
+}
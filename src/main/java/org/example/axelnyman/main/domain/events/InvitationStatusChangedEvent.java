@@ -0,0 +1,7 @@
+package org.example.axelnyman.main.domain.events;
+
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationStatusResponse;
+
+/** Published once an invitation's status change has been stored, e.g. by the expiry sweep. */
+public record InvitationStatusChangedEvent(Long invitedUserId, InvitationStatusResponse invitation) {
+}
@@ -0,0 +1,25 @@
+package org.example.axelnyman.main.domain.extensions;
+
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountResponse;
+import org.example.axelnyman.main.domain.model.BankAccount;
+import org.example.axelnyman.main.domain.model.User;
+
+public final class AccountExtensions {
+
+    private AccountExtensions() {
+        // Prevent instantiation
+    }
+
+    public static BankAccount toEntity(String accountName, User owner) {
+        BankAccount account = new BankAccount(accountName.trim());
+        account.getUsers().add(owner);
+        return account;
+    }
+
+    public static AccountResponse toResponse(BankAccount account) {
+        return new AccountResponse(
+                account.getId(),
+                account.getAccountName(),
+                account.getCreatedAt());
+    }
+}
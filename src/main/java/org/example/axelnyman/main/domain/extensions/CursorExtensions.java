@@ -0,0 +1,62 @@
+package org.example.axelnyman.main.domain.extensions;
+
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceResponse;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.shared.exceptions.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque page cursors: the sort key of the last row of a page, base64url-encoded, so clients
+ * pass them back unchanged instead of building them. The next page starts right after that key.
+ */
+public final class CursorExtensions {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorExtensions() {
+        // Prevent instantiation
+    }
+
+    /** Keyset of the invitation history, newest first. */
+    public record InvitationCursor(LocalDateTime createdAt, Long id) {}
+
+    public static String toCursor(BalanceResponse lastBalance) {
+        return encode(lastBalance.balanceDate().toString());
+    }
+
+    public static String toCursor(InvitationResponse lastInvitation) {
+        return encode(lastInvitation.createdAt() + SEPARATOR + lastInvitation.id());
+    }
+
+    public static LocalDate toBalanceDate(String cursor) {
+        try {
+            return LocalDate.parse(decode(cursor));
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    public static InvitationCursor toInvitationCursor(String cursor) {
+        try {
+            String key = decode(cursor);
+            int separator = key.lastIndexOf(SEPARATOR);
+            return new InvitationCursor(
+                    LocalDateTime.parse(key.substring(0, separator)),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException("Invalid cursor");
+        }
+    }
+
+    private static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -67,6 +67,7 @@ public final class HouseholdExtensions {
                 invitation.getHousehold().getName(),
                 invitation.getInvitedUser().getEmail(),
                 inviterDetails,
+                invitation.getCreatedAt(),
                 invitation.getExpiresAt(),
                 invitation.getStatus().toString()
         );
@@ -20,8 +20,23 @@ public final class UserExtensions {
                 user.getCreatedAt());
     }
 
+    public static UserResponse toResponse(LoginCredentials credentials) {
+        return new UserResponse(
+                credentials.id(),
+                credentials.firstName(),
+                credentials.lastName(),
+                credentials.email(),
+                credentials.householdId(),
+                credentials.householdName(),
+                credentials.createdAt());
+    }
+
     public static AuthResponse toAuthResponse(String token, User user) {
-        return new AuthResponse(token, toResponse(user));
+        return toAuthResponse(token, toResponse(user));
+    }
+
+    public static AuthResponse toAuthResponse(String token, UserResponse user) {
+        return new AuthResponse(token, user);
     }
 
     public static UserMemberResponse toMemberResponse(User user) {
@@ -41,4 +56,14 @@ public final class UserExtensions {
                 request.password(),
                 household);
     }
+
+    public static User toEntity(RegisterRequest request, String hashedPassword, Household household) {
+        User user = new User();
+        user.setFirstName(request.firstName());
+        user.setLastName(request.lastName());
+        user.setEmail(request.email());
+        user.setHashedPassword(hashedPassword);
+        user.setHousehold(household);
+        return user;
+    }
 }
\ No newline at end of file
@@ -15,7 +15,8 @@ import jakarta.persistence.*;
 public class AccountBalance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balances_seq")
+    @SequenceGenerator(name = "account_balances_seq", sequenceName = "account_balances_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,50 @@
+package org.example.axelnyman.main.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+
+/**
+ * The most recent {@link AccountBalance} of an account, by balance date. Written only by the
+ * upsert in {@code AccountBalanceRepository}, in the same transaction as the balance itself.
+ */
+@Entity
+@Table(name = "account_latest_balances")
+public class AccountLatestBalance {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balanceAmount;
+
+    @Column(nullable = false)
+    private LocalDate balanceDate;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public AccountLatestBalance() {
+    }
+
+    // Getters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public BigDecimal getBalanceAmount() {
+        return balanceAmount;
+    }
+
+    public LocalDate getBalanceDate() {
+        return balanceDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -8,13 +8,16 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "household_invitations", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"household_id", "invited_user_id", "status"}))
+@Table(name = "household_invitations")
 @EntityListeners(AuditingEntityListener.class)
 public final class HouseholdInvitation {
 
+    /** Partial unique index allowing one pending invitation per household and user (see db/migration). */
+    public static final String PENDING_UNIQUE_INDEX = "uk_household_invitations_pending";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "household_invitations_seq")
+    @SequenceGenerator(name = "household_invitations_seq", sequenceName = "household_invitations_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,6 +42,10 @@ public final class HouseholdInvitation {
     @Column(nullable = false)
     private LocalDateTime expiresAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -134,4 +141,8 @@ public final class HouseholdInvitation {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
\ No newline at end of file
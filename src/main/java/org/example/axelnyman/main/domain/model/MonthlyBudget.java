@@ -14,7 +14,8 @@ import jakarta.persistence.*;
 public class MonthlyBudget {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_budgets_seq")
+    @SequenceGenerator(name = "monthly_budgets_seq", sequenceName = "monthly_budgets_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
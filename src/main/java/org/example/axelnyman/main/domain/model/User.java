@@ -15,10 +15,14 @@ import java.util.Set;
 @EntityListeners(AuditingEntityListener.class)
 public final class User {
 
+    /** Unique constraint on the email column, covering soft-deleted users too (see db/migration). */
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+
     private static PasswordEncoder passwordEncoder;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -40,6 +44,10 @@ public final class User {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -126,6 +134,10 @@ public final class User {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<BankAccount> getBankAccounts() {
         return bankAccounts;
     }
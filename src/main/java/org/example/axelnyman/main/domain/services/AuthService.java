@@ -10,40 +10,56 @@ import org.example.axelnyman.main.domain.model.User;
 import org.example.axelnyman.main.shared.exceptions.DuplicateEmailException;
 import org.example.axelnyman.main.shared.exceptions.InvalidCredentialsException;
 import org.example.axelnyman.main.infrastructure.security.JwtTokenProvider;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.example.axelnyman.main.infrastructure.security.PasswordHashingExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class AuthService implements IAuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final IDataService dataService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtTokenProvider jwtTokenProvider;
+    private final Executor taskExecutor;
 
-    public AuthService(IDataService dataService, PasswordEncoder passwordEncoder, JwtTokenProvider jwtTokenProvider) {
+    public AuthService(IDataService dataService, PasswordHashingExecutor passwordHashingExecutor,
+            JwtTokenProvider jwtTokenProvider, @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.dataService = dataService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = passwordHashingExecutor;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
-    public AuthResponse registerUser(RegisterRequest request) {
-        boolean exists = dataService.userExistsByEmailIncludingDeleted(request.email());
-        if (exists) {
-            throw new DuplicateEmailException("User with email " + request.email() + " already exists");
+    public CompletableFuture<AuthResponse> registerUser(RegisterRequest request) {
+        // Rejects a taken email before paying for the hash; only emails the filter may have seen are queried
+        if (dataService.userExistsByEmailIncludingDeleted(request.email())) {
+            return CompletableFuture.failedFuture(
+                    new DuplicateEmailException("User with email " + request.email() + " already exists"));
         }
 
-        // Create household first
+        // Hash on the hashing pool, then persist on a task thread so hashing workers never wait on the database
+        return passwordHashingExecutor.encode(request.password())
+                .thenApplyAsync(hashedPassword -> createUserWithHousehold(request, hashedPassword), taskExecutor);
+    }
+
+    private AuthResponse createUserWithHousehold(RegisterRequest request, String hashedPassword) {
         String householdName = request.firstName() + " " + request.lastName() + "'s Household";
         Household household = HouseholdExtensions.toEntity(householdName);
-        Household savedHousehold = dataService.saveHousehold(household);
+        User user = UserExtensions.toEntity(request, hashedPassword, household);
 
-        // Create user entity (password hashing handled by User constructor)
-        User user = UserExtensions.toEntity(request, savedHousehold);
-
-        User savedUser = dataService.saveUser(user);
+        // The unique email constraint decides concurrent signups; there is no separate existence check
+        User savedUser = dataService.insertUserWithHousehold(user)
+                .orElseThrow(() -> new DuplicateEmailException(
+                        "User with email " + request.email() + " already exists"));
 
         // Generate JWT token
         String token = jwtTokenProvider.generateToken(
@@ -55,25 +71,48 @@ public class AuthService implements IAuthService {
     }
 
     @Override
-    public AuthResponse login(LoginRequest loginRequest) {
-        Optional<User> userOptional = dataService.findActiveUserByEmail(loginRequest.email());
+    public CompletableFuture<AuthResponse> login(LoginRequest loginRequest) {
+        // One select for the hash, ids and household name; BCrypt is the only remaining cost
+        Optional<LoginCredentials> credentialsOptional = dataService.getActiveLoginCredentialsByEmail(loginRequest.email());
 
-        if (userOptional.isEmpty()) {
-            throw new InvalidCredentialsException("Invalid credentials");
+        if (credentialsOptional.isEmpty()) {
+            return CompletableFuture.failedFuture(new InvalidCredentialsException("Invalid credentials"));
         }
 
-        User user = userOptional.get();
+        LoginCredentials credentials = credentialsOptional.get();
 
-        if (!passwordEncoder.matches(loginRequest.password(), user.getHashedPassword())) {
-            throw new InvalidCredentialsException("Invalid credentials");
-        }
+        return passwordHashingExecutor.matches(loginRequest.password(), credentials.hashedPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new InvalidCredentialsException("Invalid credentials");
+                    }
 
-        // Generate JWT token
-        String token = jwtTokenProvider.generateToken(
-                user.getId(),
-                user.getHousehold().getId(),
-                user.getEmail());
+                    if (passwordHashingExecutor.needsRehash(credentials.hashedPassword())) {
+                        upgradePasswordHash(credentials.id(), loginRequest.password(), credentials.hashedPassword());
+                    }
+
+                    // Generate JWT token
+                    String token = jwtTokenProvider.generateToken(
+                            credentials.id(),
+                            credentials.householdId(),
+                            credentials.email());
+
+                    return UserExtensions.toAuthResponse(token, UserExtensions.toResponse(credentials));
+                });
+    }
 
-        return UserExtensions.toAuthResponse(token, user);
+    /**
+     * Re-hashes the password with the current encoder settings and stores it in the
+     * background. The login response does not wait for it, and a failed or rejected
+     * upgrade is retried on the next login.
+     */
+    private void upgradePasswordHash(Long userId, String rawPassword, String currentHash) {
+        passwordHashingExecutor.encode(rawPassword)
+                .thenAcceptAsync(newHash -> dataService.replaceUserPasswordHash(userId, currentHash, newHash),
+                        taskExecutor)
+                .exceptionally(ex -> {
+                    log.debug("Password hash upgrade for user {} skipped: {}", userId, ex.getMessage());
+                    return null;
+                });
     }
-}
\ No newline at end of file
+}
@@ -1,37 +1,67 @@
 package org.example.axelnyman.main.domain.services;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.example.axelnyman.main.domain.abstracts.IDataService;
 import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.abstracts.IHouseholdCache;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.*;
 import org.example.axelnyman.main.domain.dtos.UserDtos.*;
 import org.example.axelnyman.main.domain.dtos.HouseholdDtos.*;
-import org.example.axelnyman.main.domain.extensions.UserExtensions;
+import org.example.axelnyman.main.domain.dtos.PageDtos.CursorPage;
+import org.example.axelnyman.main.domain.events.InvitationCreatedEvent;
+import org.example.axelnyman.main.domain.extensions.AccountExtensions;
+import org.example.axelnyman.main.domain.extensions.CursorExtensions;
+import org.example.axelnyman.main.domain.extensions.CursorExtensions.InvitationCursor;
 import org.example.axelnyman.main.domain.extensions.HouseholdExtensions;
 import org.example.axelnyman.main.domain.model.Household;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
 import org.example.axelnyman.main.domain.model.User;
+import org.example.axelnyman.main.shared.exceptions.AccountNotFoundException;
 import org.example.axelnyman.main.shared.exceptions.HouseholdNotFoundException;
+import org.example.axelnyman.main.shared.exceptions.InvalidDateRangeException;
+import org.example.axelnyman.main.shared.exceptions.InvalidPageRequestException;
 import org.example.axelnyman.main.shared.exceptions.InvitationAlreadyExistsException;
 import org.example.axelnyman.main.shared.exceptions.UserAlreadyInHouseholdException;
 import org.example.axelnyman.main.shared.exceptions.UserNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DomainService implements IDomainService {
 
+    private static final int IMPORT_READ_BUFFER_SIZE = 64 * 1024;
+    // Ten years of daily points, with room for leap days
+    private static final long MAX_NET_WORTH_POINTS = 3_660;
+    private static final long MAX_MONTHLY_BALANCE_MONTHS = 120;
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final IDataService dataService;
+    private final IHouseholdCache householdCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public DomainService(IDataService dataService) {
+    public DomainService(IDataService dataService, IHouseholdCache householdCache,
+            ApplicationEventPublisher eventPublisher) {
         this.dataService = dataService;
+        this.householdCache = householdCache;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public Optional<UserResponse> getUserByIdInHousehold(Long id, Long householdId) {
-        return dataService.getActiveUserByIdAndHouseholdId(id, householdId)
-                .map(UserExtensions::toResponse);
+        return dataService.getActiveUserResponseByIdAndHouseholdId(id, householdId);
     }
 
     @Override
@@ -41,25 +71,22 @@ public class DomainService implements IDomainService {
 
     @Override
     public Optional<UserResponse> getUserProfile(Long userId) {
-        return dataService.getUserById(userId)
-                .map(UserExtensions::toResponse);
+        return dataService.getUserResponseById(userId);
     }
 
     @Override
     public List<UserResponse> getHouseholdUsers(Long householdId) {
-        return dataService.getActiveUsersByHouseholdId(householdId)
-                .stream()
-                .map(UserExtensions::toResponse)
-                .toList();
+        return householdCache.getMembers(householdId, dataService::getActiveUserResponsesByHouseholdId);
     }
 
     @Override
     public Optional<HouseholdResponse> getHouseholdDetails(Long householdId) {
-        return dataService.getHouseholdWithActiveMembers(householdId)
-                .map(HouseholdExtensions::toResponse);
+        return householdCache.getDetails(householdId, id -> dataService.getHouseholdWithActiveMembers(id)
+                .map(HouseholdExtensions::toResponse));
     }
 
     @Override
+    @Transactional
     public HouseholdUpdateResponse updateHouseholdName(Long householdId, String name) {
         // Get household
         Household household = dataService.getHouseholdById(householdId)
@@ -68,62 +95,179 @@ public class DomainService implements IDomainService {
         // Update name (trim for consistent formatting)
         household.setName(name.trim());
         
-        // Save and return
+        // Save and return (evicts the cached household once the transaction commits)
         Household savedHousehold = dataService.saveHousehold(household);
         return HouseholdExtensions.toUpdateResponse(savedHousehold);
     }
 
     @Override
     public InvitationResponse createHouseholdInvitation(Long householdId, Long invitedByUserId, String email) {
-        validateInvitationRequest(householdId, invitedByUserId, email);
-        HouseholdInvitation invitation = buildInvitation(householdId, invitedByUserId, email);
-        return saveAndReturnInvitation(invitation);
-    }
-
-    private void validateInvitationRequest(Long householdId, Long invitedByUserId, String email) {
         // Find user by email
         User invitedUser = dataService.findActiveUserByEmail(email)
                 .orElseThrow(() -> new UserNotFoundException("User with this email not found"));
 
-        // Check if user is already in the same household
+        // Check if user is already in the same household (reads the id without loading the household)
         if (invitedUser.getHousehold() != null && invitedUser.getHousehold().getId().equals(householdId)) {
             throw new UserAlreadyInHouseholdException("User already belongs to your household");
         }
 
-        // Check for existing active invitation
-        Optional<HouseholdInvitation> existingInvitation = dataService.findActiveInvitationByHouseholdAndUser(householdId, invitedUser.getId());
-        if (existingInvitation.isPresent()) {
-            throw new InvitationAlreadyExistsException("Active invitation already exists for this user");
+        // Inviter and household in one query; the response needs both. Only when that finds
+        // nothing does a second query tell a missing household from a missing inviter
+        User invitedByUser = dataService.getActiveUserWithHousehold(invitedByUserId, householdId)
+                .orElseThrow(() -> dataService.householdExists(householdId)
+                        ? new UserNotFoundException("Inviting user not found")
+                        : new HouseholdNotFoundException("Household not found"));
+
+        // The unique constraint rejects a second pending invitation for the same user
+        HouseholdInvitation invitation = HouseholdExtensions.toInvitationEntity(
+                invitedByUser.getHousehold(), invitedUser, invitedByUser);
+        HouseholdInvitation savedInvitation = dataService.insertPendingInvitation(invitation)
+                .orElseThrow(() -> new InvitationAlreadyExistsException("Active invitation already exists for this user"));
+        InvitationResponse response = HouseholdExtensions.toInvitationResponse(savedInvitation);
+
+        // Pushed to the invited user's open invitation streams once committed
+        eventPublisher.publishEvent(new InvitationCreatedEvent(invitedUser.getId(), response));
+        return response;
+    }
+
+    @Override
+    public List<InvitationResponse> getUserPendingInvitations(Long userId) {
+        // Outdated invitations are filtered by expiresAt here and marked expired by InvitationExpirySweeper
+        return dataService.getPendingNonExpiredInvitationResponsesForUser(userId);
+    }
+
+    @Override
+    public CursorPage<InvitationResponse> getUserInvitationHistory(Long userId, InvitationStatus status, String cursor, int limit) {
+        requireValidPageSize(limit);
+        InvitationCursor after = cursor != null ? CursorExtensions.toInvitationCursor(cursor) : null;
+        List<InvitationResponse> invitations = dataService.getInvitationResponsePage(userId, status, after, limit + 1);
+        if (invitations.size() <= limit) {
+            return new CursorPage<>(invitations, null);
         }
+        List<InvitationResponse> page = invitations.subList(0, limit);
+        return new CursorPage<>(page, CursorExtensions.toCursor(page.get(limit - 1)));
     }
 
-    private HouseholdInvitation buildInvitation(Long householdId, Long invitedByUserId, String email) {
-        // Get required entities
-        User invitedUser = dataService.findActiveUserByEmail(email).orElseThrow();
-        Household household = dataService.getHouseholdById(householdId)
-                .orElseThrow(() -> new HouseholdNotFoundException("Household not found"));
-        User invitedByUser = dataService.getUserById(invitedByUserId)
-                .orElseThrow(() -> new UserNotFoundException("Inviting user not found"));
+    @Override
+    public void exportUserInvitationHistory(Long userId, InvitationStatus status, Consumer<InvitationResponse> action) {
+        dataService.streamInvitationResponses(userId, status, action);
+    }
 
-        // Create invitation entity
-        return HouseholdExtensions.toInvitationEntity(household, invitedUser, invitedByUser);
+    @Override
+    public Optional<String> getHouseholdETag(Long householdId) {
+        // Shared by the household details and the member list, which change together
+        return householdCache.getVersionTag(householdId, dataService::getHouseholdVersionTag)
+                .map(version -> weakETag("household", householdId, version));
     }
 
-    private InvitationResponse saveAndReturnInvitation(HouseholdInvitation invitation) {
-        HouseholdInvitation savedInvitation = dataService.saveHouseholdInvitation(invitation);
-        return HouseholdExtensions.toInvitationResponse(savedInvitation);
+    @Override
+    public Optional<String> getUserProfileETag(Long userId) {
+        return dataService.getUserProfileVersionTag(userId)
+                .map(version -> weakETag("user", userId, version));
     }
 
     @Override
-    @Transactional
-    public List<InvitationResponse> getUserPendingInvitations(Long userId) {
-        // First, expire any outdated invitations
-        dataService.expireOutdatedInvitations();
-        
-        // Then fetch only pending non-expired invitations
-        return dataService.getPendingNonExpiredInvitationsForUser(userId)
-                .stream()
-                .map(HouseholdExtensions::toInvitationResponse)
-                .toList();
+    public String getUserPendingInvitationsETag(Long userId) {
+        return weakETag("invitations", userId, dataService.getPendingNonExpiredInvitationsVersionTagForUser(userId));
+    }
+
+    @Override
+    public AccountResponse createAccount(Long userId, String accountName) {
+        User owner = dataService.getUserById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        return AccountExtensions.toResponse(dataService.saveBankAccount(AccountExtensions.toEntity(accountName, owner)));
+    }
+
+    @Override
+    public List<AccountOverviewResponse> getHouseholdAccounts(Long householdId) {
+        return dataService.getActiveAccountOverviewsByHouseholdId(householdId);
+    }
+
+    @Override
+    public BalanceResponse recordBalance(Long householdId, Long accountId, LocalDate balanceDate, BigDecimal balanceAmount) {
+        requireAccountInHousehold(householdId, accountId);
+        dataService.recordAccountBalance(accountId, balanceAmount, balanceDate);
+        // Stored with two decimals; validation has already rejected anything finer
+        return new BalanceResponse(accountId, balanceAmount.setScale(2), balanceDate);
+    }
+
+    @Override
+    public BalanceImportResponse importBalances(Long householdId, Long accountId, InputStream body, BalanceImportFormat format) {
+        requireAccountInHousehold(householdId, accountId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), IMPORT_READ_BUFFER_SIZE);
+        return dataService.importAccountBalances(accountId, reader, format);
+    }
+
+    @Override
+    public CursorPage<BalanceResponse> getBalanceHistory(Long householdId, Long accountId, String cursor, int limit) {
+        requireAccountInHousehold(householdId, accountId);
+        requireValidPageSize(limit);
+        LocalDate after = cursor != null ? CursorExtensions.toBalanceDate(cursor) : null;
+        // One row more than the page tells whether another page follows
+        List<BalanceResponse> balances = dataService.getBalanceResponsePage(accountId, after, limit + 1);
+        if (balances.size() <= limit) {
+            return new CursorPage<>(balances, null);
+        }
+        List<BalanceResponse> page = balances.subList(0, limit);
+        return new CursorPage<>(page, CursorExtensions.toCursor(page.get(limit - 1)));
+    }
+
+    @Override
+    public void exportBalanceHistory(Long householdId, Long accountId, Consumer<BalanceResponse> action) {
+        requireAccountInHousehold(householdId, accountId);
+        dataService.streamBalanceResponses(accountId, action);
+    }
+
+    @Override
+    public Optional<BalanceResponse> getCurrentBalance(Long householdId, Long accountId) {
+        requireAccountInHousehold(householdId, accountId);
+        return dataService.getLatestBalanceResponseByAccountId(accountId);
+    }
+
+    @Override
+    public List<NetWorthPoint> getHouseholdNetWorth(Long householdId, LocalDate from, LocalDate to, NetWorthGranularity granularity) {
+        if (householdId == null) {
+            throw new HouseholdNotFoundException("Household not found");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("Invalid date range");
+        }
+        long points = granularity == NetWorthGranularity.DAY
+                ? ChronoUnit.DAYS.between(from, to) + 1
+                : ChronoUnit.MONTHS.between(YearMonth.from(from), YearMonth.from(to)) + 1;
+        if (points > MAX_NET_WORTH_POINTS) {
+            throw new InvalidDateRangeException("Date range exceeds " + MAX_NET_WORTH_POINTS + " points");
+        }
+        return dataService.getNetWorthPointsByHouseholdId(householdId, from, to, granularity);
+    }
+
+    @Override
+    public List<MonthlyBalanceResponse> getHouseholdMonthlyBalances(Long householdId, YearMonth from, YearMonth to) {
+        if (householdId == null) {
+            throw new HouseholdNotFoundException("Household not found");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("Invalid date range");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) + 1 > MAX_MONTHLY_BALANCE_MONTHS) {
+            throw new InvalidDateRangeException("Date range exceeds " + MAX_MONTHLY_BALANCE_MONTHS + " months");
+        }
+        return dataService.getMonthlyBalancesByHouseholdId(householdId, from, to);
+    }
+
+    private static void requireValidPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidPageRequestException("Invalid limit");
+        }
+    }
+
+    private void requireAccountInHousehold(Long householdId, Long accountId) {
+        if (householdId == null || !dataService.isActiveBankAccountInHousehold(accountId, householdId)) {
+            throw new AccountNotFoundException("Account not found");
+        }
+    }
+
+    private static String weakETag(String resource, Long id, String version) {
+        return "W/\"" + resource + "-" + id + "-" + version + "\"";
     }
 }
@@ -0,0 +1,293 @@
+package org.example.axelnyman.main.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Spreads cache evictions to the other application instances through PostgreSQL
+ * {@code NOTIFY}/{@code LISTEN}. Evicted household ids are collected after commit and sent every
+ * {@code cache.invalidation.flush-interval}, many per notification. Each instance listens on one
+ * dedicated connection outside the pool and hands the ids of other instances' notifications to its
+ * subscribers. Disabled with {@code cache.invalidation.enabled=false}; local evictions still apply.
+ * <p>
+ * Other components can send their own messages to the other instances on sibling channels, over
+ * the same listening connection and publisher; see {@link #subscribe(String, Consumer)}.
+ */
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "cache_invalidation";
+    static final String ALL = "*";
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7_900;
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final Duration flushInterval;
+
+    private final Set<Long> pendingHouseholds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pendingAll = new AtomicBoolean();
+    private final List<Consumer<Set<Long>>> householdSubscribers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> allSubscribers = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<String>>> messageSubscribers = new ConcurrentHashMap<>();
+    private final Queue<PendingMessage> pendingMessages = new ConcurrentLinkedQueue<>();
+
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+
+    private volatile boolean running;
+    private ScheduledExecutorService publisher;
+    private Thread listener;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                MeterRegistry meterRegistry,
+                                @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${cache.invalidation.flush-interval:PT0.1S}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.flushInterval = flushInterval;
+
+        this.publishedCounter = Counter.builder("cache.invalidation.notifications")
+                .description("Cache invalidation notifications sent or received")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("cache.invalidation.notifications")
+                .description("Cache invalidation notifications sent or received")
+                .tag("direction", "received")
+                .register(meterRegistry);
+    }
+
+    /** Registers local eviction callbacks for households changed on other instances. */
+    public void subscribe(Consumer<Set<Long>> onHouseholds, Runnable onAll) {
+        householdSubscribers.add(onHouseholds);
+        allSubscribers.add(onAll);
+    }
+
+    /**
+     * Registers a handler for messages other instances {@link #send send} on {@code channel}, which
+     * this instance then listens on as well. Register before the bus starts, e.g. from a constructor.
+     */
+    public void subscribe(String channel, Consumer<String> onMessage) {
+        messageSubscribers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(onMessage);
+    }
+
+    /**
+     * Queues a message for the other instances' subscribers to {@code channel}, sent with the next
+     * flush. Call after the change has committed; this instance's own subscribers are not called.
+     */
+    public void send(String channel, String message) {
+        if (!enabled) {
+            return;
+        }
+        if (nodeId.length() + 1 + message.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_LENGTH) {
+            throw new IllegalArgumentException("Message for " + channel + " exceeds the NOTIFY payload limit");
+        }
+        pendingMessages.add(new PendingMessage(channel, nodeId + " " + message));
+    }
+
+    /** Queues a household for the next notification. Call after the change has committed. */
+    public void publishHousehold(Long householdId) {
+        if (enabled) {
+            pendingHouseholds.add(householdId);
+        }
+    }
+
+    public void publishAll() {
+        if (enabled) {
+            pendingAll.set(true);
+        }
+    }
+
+    /** Sends everything queued so far; returns the number of notifications sent. */
+    public int flush() {
+        List<String> payloads = new ArrayList<>();
+        if (pendingAll.getAndSet(false)) {
+            pendingHouseholds.clear();
+            payloads.add(nodeId + " " + ALL);
+        } else {
+            StringBuilder payload = new StringBuilder(nodeId).append(' ');
+            int emptyLength = payload.length();
+            for (Long householdId : drainPendingHouseholds()) {
+                String id = householdId.toString();
+                if (payload.length() + id.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                    payloads.add(payload.toString());
+                    payload.setLength(emptyLength);
+                }
+                if (payload.length() > emptyLength) {
+                    payload.append(',');
+                }
+                payload.append(id);
+            }
+            if (payload.length() > emptyLength) {
+                payloads.add(payload.toString());
+            }
+        }
+
+        for (String payload : payloads) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, payload);
+            publishedCounter.increment();
+        }
+
+        int sent = payloads.size();
+        PendingMessage message;
+        while ((message = pendingMessages.poll()) != null) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, message.channel(), message.payload());
+            sent++;
+        }
+        return sent;
+    }
+
+    private Set<Long> drainPendingHouseholds() {
+        Set<Long> drained = new HashSet<>();
+        for (Long householdId : pendingHouseholds) {
+            if (pendingHouseholds.remove(householdId)) {
+                drained.add(householdId);
+            }
+        }
+        return drained;
+    }
+
+    void handle(String channel, String payload) {
+        int separator = payload.indexOf(' ');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            // Malformed, or sent by this instance, which evicted or delivered locally already
+            return;
+        }
+        String body = payload.substring(separator + 1);
+        if (!CHANNEL.equals(channel)) {
+            messageSubscribers.getOrDefault(channel, List.of()).forEach(subscriber -> subscriber.accept(body));
+            return;
+        }
+        receivedCounter.increment();
+        if (ALL.equals(body)) {
+            allSubscribers.forEach(Runnable::run);
+            return;
+        }
+        Set<Long> householdIds = new HashSet<>();
+        for (String id : body.split(",")) {
+            householdIds.add(Long.valueOf(id));
+        }
+        householdSubscribers.forEach(subscriber -> subscriber.accept(householdIds));
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.scheduleWithFixedDelay(this::flushQuietly,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (publisher != null) {
+            publisher.shutdown();
+            flushQuietly();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Publishing cache invalidations failed", e);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    for (String channel : messageSubscribers.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                // Anything changed while disconnected was missed, so start from a clean cache
+                allSubscribers.forEach(Runnable::run);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getName(), notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected; reconnecting in {} ms", RECONNECT_DELAY_MILLIS, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record PendingMessage(String channel, String payload) {
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.axelnyman.main.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.axelnyman.main.domain.abstracts.IHouseholdCache;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Caffeine caches for {@code GET /api/households} and {@code GET /api/users} and their ETag version
+ * tags, bounded by {@code cache.households.max-size} entries each and expiring
+ * {@code cache.households.ttl} after being loaded. Hits, misses and evictions are published as
+ * {@code cache.*} metrics tagged {@code cache=households.details}, {@code cache=households.members}
+ * and {@code cache=households.versions}. With {@code cache.households.enabled=false} every read goes
+ * to the loader, for latency comparisons.
+ * Evictions are sent to the other instances through {@link CacheInvalidationBus} once committed.
+ */
+@Component
+public class HouseholdCache implements IHouseholdCache {
+
+    private final boolean enabled;
+    private final Cache<Long, HouseholdResponse> details;
+    private final Cache<Long, List<UserResponse>> members;
+    private final Cache<Long, String> versionTags;
+    private final CacheInvalidationBus invalidationBus;
+
+    public HouseholdCache(MeterRegistry meterRegistry,
+                          CacheInvalidationBus invalidationBus,
+                          @Value("${cache.households.enabled:true}") boolean enabled,
+                          @Value("${cache.households.ttl:PT30S}") Duration ttl,
+                          @Value("${cache.households.max-size:10000}") long maxSize) {
+        this.enabled = enabled;
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.members = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.versionTags = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "households.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, members, "households.members");
+        CaffeineCacheMetrics.monitor(meterRegistry, versionTags, "households.versions");
+
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(this::evictLocally, this::evictAllLocally);
+    }
+
+    @Override
+    public Optional<HouseholdResponse> getDetails(Long householdId,
+                                                  Function<Long, Optional<HouseholdResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(householdId);
+        }
+        // A missing household is not cached
+        return Optional.ofNullable(details.get(householdId, id -> loader.apply(id).orElse(null)));
+    }
+
+    @Override
+    public List<UserResponse> getMembers(Long householdId, Function<Long, List<UserResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(householdId);
+        }
+        return members.get(householdId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    @Override
+    public Optional<String> getVersionTag(Long householdId, Function<Long, Optional<String>> loader) {
+        if (!enabled) {
+            return loader.apply(householdId);
+        }
+        return Optional.ofNullable(versionTags.get(householdId, id -> loader.apply(id).orElse(null)));
+    }
+
+    @Override
+    public void evict(Long householdId) {
+        if (householdId == null) {
+            return;
+        }
+        evictLocally(Set.of(householdId));
+        afterCommit(() -> {
+            evictLocally(Set.of(householdId));
+            invalidationBus.publishHousehold(householdId);
+        });
+    }
+
+    @Override
+    public void evictAll() {
+        evictAllLocally();
+        afterCommit(() -> {
+            evictAllLocally();
+            invalidationBus.publishAll();
+        });
+    }
+
+    private void evictLocally(Set<Long> householdIds) {
+        details.invalidateAll(householdIds);
+        members.invalidateAll(householdIds);
+        versionTags.invalidateAll(householdIds);
+    }
+
+    private void evictAllLocally() {
+        details.invalidateAll();
+        members.invalidateAll();
+        versionTags.invalidateAll();
+    }
+
+    // Runs again once the surrounding transaction commits (or right away without one): a reader
+    // between the write and its commit could have cached the old state, and other instances must
+    // not reload before the change is visible
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.axelnyman.main.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.shared.exceptions.ServiceOverloadedException;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits how many threads use {@link IDataService} at once to the size of the connection pool, in
+ * virtual-thread mode ({@code spring.threads.virtual.enabled=true}). Without it, every request
+ * thread goes on to wait inside the pool and the driver, and with virtual threads there is no
+ * Tomcat pool to cap their number; those that block in {@code synchronized} code there pin their
+ * carriers. Here they wait on a fair semaphore instead, which parks them without pinning, and no
+ * more of them than there are connections reach the pool.
+ * <p>
+ * A thread holds one permit from its first data access until it returns, or until the transaction
+ * it was made in completes, as that transaction keeps its connection; nested calls take no more.
+ * A thread that waits longer than {@code virtual-threads.data-access.acquire-timeout} gets a
+ * {@link ServiceOverloadedException}, answered with 503.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DataAccessBulkhead extends AbstractAdvisingBeanPostProcessor
+        implements MethodInterceptor, SmartInitializingSingleton {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ThreadLocal<Boolean> holding = new ThreadLocal<>();
+    private Counter rejectedCounter;
+
+    public DataAccessBulkhead(ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${virtual-threads.data-access.max-concurrency:10}") int maxConcurrency,
+                              @Value("${virtual-threads.data-access.acquire-timeout:PT5S}") Duration acquireTimeout,
+                              @Value("${virtual-threads.data-access.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.meterRegistry = meterRegistry;
+
+        this.advisor = new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(IDataService.class)), this);
+        // Outside the data service's own transactions, so a permit covers a whole transaction
+        setBeforeExistingAdvisors(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Gauge.builder("data.access.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a data access permit")
+                .register(registry);
+        Gauge.builder("data.access.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Data access permits not in use")
+                .register(registry);
+        rejectedCounter = Counter.builder("data.access.bulkhead.rejected")
+                .description("Data accesses rejected after waiting too long for a permit")
+                .register(registry);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (holding.get() != null) {
+            return invocation.proceed();
+        }
+        acquire();
+        holding.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        release();
+                    }
+                });
+            } else {
+                release();
+            }
+        }
+    }
+
+    private void acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+        throw new ServiceOverloadedException("Too many concurrent requests, please retry shortly", retryAfterSeconds);
+    }
+
+    private void release() {
+        holding.remove();
+        permits.release();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.axelnyman.main.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.axelnyman.main.shared.exceptions.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent reads behind a composite response concurrently on a bounded pool, so the
+ * response takes as long as its slowest section rather than the sum of all of them. The pool
+ * defaults to the size of the connection pool the sections wait on. Work that does not fit in the
+ * queue is rejected with {@link ServiceOverloadedException}.
+ */
+@Component
+public class FanOutExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedCounter;
+
+    public FanOutExecutor(MeterRegistry meterRegistry,
+                          @Value("${fan-out.threads:10}") int threads,
+                          @Value("${fan-out.queue-capacity:256}") int queueCapacity,
+                          @Value("${fan-out.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("fanout.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Fan-out sections waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("fanout.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Fan-out workers currently busy")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("fanout.rejected")
+                .description("Fan-out sections rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /** Result of one section, with the time it took once a worker picked it up. */
+    public record Section<T>(String name, T value, Duration duration) {}
+
+    public <T> CompletableFuture<Section<T>> submit(String name, Supplier<T> task) {
+        Timer timer = Timer.builder("fanout.section.duration")
+                .description("Time a fan-out section took once a worker picked it up")
+                .tag("section", name)
+                .register(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                T value = task.get();
+                long elapsed = System.nanoTime() - startedAt;
+                timer.record(elapsed, TimeUnit.NANOSECONDS);
+                return new Section<>(name, value, Duration.ofNanos(elapsed));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new ServiceOverloadedException(
+                    "Too many concurrent requests, please retry shortly", retryAfterSeconds));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
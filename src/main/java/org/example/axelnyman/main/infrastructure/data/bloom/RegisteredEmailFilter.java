@@ -0,0 +1,159 @@
+package org.example.axelnyman.main.infrastructure.data.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+
+/**
+ * Bloom filter of every registered email (normalized, soft-deleted users included), so the
+ * registration pre-check can skip the database for emails that were never seen. It is sized for
+ * twice the current user count, built at startup by streaming {@code users.email}, updated as
+ * users are saved and rebuilt every {@code registration.email-filter.rebuild-interval} to shed
+ * deleted users and regain headroom. Until the first build completes, and when disabled with
+ * {@code registration.email-filter.enabled=false}, every email is reported as possibly present.
+ */
+@Component
+public class RegisteredEmailFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisteredEmailFilter.class);
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final long MIN_EXPECTED_INSERTIONS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter current;
+    // Filter under construction during a rebuild; saves are added to it as well so none are lost
+    private volatile BloomFilter building;
+
+    private final Counter absentCounter;
+    private final Counter presentCounter;
+    private final Counter falsePositiveCounter;
+    private final Timer rebuildTimer;
+
+    public RegisteredEmailFilter(DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${registration.email-filter.enabled:true}") boolean enabled,
+                                 @Value("${registration.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // PostgreSQL only streams a result set with a cursor inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+
+        Gauge.builder("registration.email.filter.expected.fpp", this,
+                        filter -> filter.current != null ? filter.current.expectedFalsePositiveRate() : 1.0)
+                .description("False-positive rate implied by the bits set in the registered email filter")
+                .register(meterRegistry);
+        Gauge.builder("registration.email.filter.memory", this,
+                        filter -> filter.current != null ? filter.current.memoryBytes() : 0)
+                .description("Size of the registered email filter's bit array")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.absentCounter = Counter.builder("registration.email.filter.checks")
+                .description("Registration email checks, by filter answer")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.presentCounter = Counter.builder("registration.email.filter.checks")
+                .description("Registration email checks, by filter answer")
+                .tag("result", "maybe-present")
+                .register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("registration.email.filter.false.positives")
+                .description("Emails the filter reported as possibly present that the database did not have")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("registration.email.filter.rebuild.duration")
+                .description("Time taken to rebuild the registered email filter from the users table")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        scheduledRebuild();
+    }
+
+    @Scheduled(initialDelayString = "${registration.email-filter.rebuild-interval:PT6H}",
+               fixedDelayString = "${registration.email-filter.rebuild-interval:PT6H}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Rebuilding the registered email filter failed; keeping the previous one", e);
+        }
+    }
+
+    /** Replaces the filter with one built from a streaming scan of the users table. */
+    public void rebuild() {
+        rebuildTimer.record(() -> readOnlyTransaction.executeWithoutResult(status -> {
+            Long users = jdbcTemplate.queryForObject("SELECT count(*) FROM users", Long.class);
+            BloomFilter filter = BloomFilter.create(
+                    Math.max(MIN_EXPECTED_INSERTIONS, 2 * (users != null ? users : 0)), falsePositiveRate);
+            building = filter;
+            try {
+                jdbcTemplate.query("SELECT email FROM users", resultSet -> {
+                    filter.put(normalize(resultSet.getString(1)));
+                });
+                current = filter;
+            } finally {
+                building = null;
+            }
+            log.info("Registered email filter built for {} users ({} KiB, {} hash functions)",
+                    users, filter.memoryBytes() / 1024, filter.hashFunctions());
+        }));
+    }
+
+    /** False means the email is definitely not registered; true means the database must decide. */
+    public boolean mightContain(String email) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(normalize(email))) {
+            presentCounter.increment();
+            return true;
+        }
+        absentCounter.increment();
+        return false;
+    }
+
+    public void add(String email) {
+        String normalized = normalize(email);
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(normalized);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(normalized);
+        }
+    }
+
+    /** Records that an email reported as possibly present was not in the database. */
+    public void recordFalsePositive() {
+        falsePositiveCounter.increment();
+    }
+
+    // Emails are stored as entered; normalizing only widens what counts as "possibly present"
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
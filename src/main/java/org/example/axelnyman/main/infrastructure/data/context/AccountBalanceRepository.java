@@ -0,0 +1,266 @@
+package org.example.axelnyman.main.infrastructure.data.context;
+
+import jakarta.persistence.QueryHint;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceResponse;
+import org.example.axelnyman.main.domain.model.AccountBalance;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, Long> {
+
+    // Native rows come back as JDBC types, which an interface projection converts
+    interface NetWorthRow {
+        LocalDate getBucketStart();
+
+        BigDecimal getNetWorth();
+    }
+
+    interface MonthlyBalanceRow {
+        Long getAccountId();
+
+        String getAccountName();
+
+        LocalDate getBalanceMonth();
+
+        BigDecimal getClosingBalance();
+
+        LocalDate getClosingDate();
+
+        BigDecimal getMinBalance();
+
+        BigDecimal getMaxBalance();
+
+        BigDecimal getAverageBalance();
+
+        Integer getBalanceCount();
+    }
+
+    // Replaces the balance already recorded for that day, if any
+    @Modifying
+    @Query(value = "INSERT INTO account_balances (account_id, balance_amount, balance_date, created_at) " +
+           "VALUES (:accountId, :balanceAmount, :balanceDate, now()) " +
+           "ON CONFLICT (account_id, balance_date) DO UPDATE SET balance_amount = EXCLUDED.balance_amount",
+           nativeQuery = true)
+    int upsertBalance(
+            @Param("accountId") Long accountId,
+            @Param("balanceAmount") BigDecimal balanceAmount,
+            @Param("balanceDate") LocalDate balanceDate);
+
+    /*
+     * Moves the latest balance forward, never back: recording an earlier day leaves it alone. The
+     * conflicting row is locked, so concurrent recordings for one account apply in turn.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_latest_balances (account_id, balance_amount, balance_date, updated_at) " +
+           "VALUES (:accountId, :balanceAmount, :balanceDate, now()) " +
+           "ON CONFLICT (account_id) DO UPDATE SET balance_amount = EXCLUDED.balance_amount, " +
+           "balance_date = EXCLUDED.balance_date, updated_at = EXCLUDED.updated_at " +
+           "WHERE account_latest_balances.balance_date <= EXCLUDED.balance_date",
+           nativeQuery = true)
+    int upsertLatestBalance(
+            @Param("accountId") Long accountId,
+            @Param("balanceAmount") BigDecimal balanceAmount,
+            @Param("balanceDate") LocalDate balanceDate);
+
+    /*
+     * Recomputes the monthly rollups of the months from {@code from} to {@code to} from the
+     * account's balances in those months, read from the unique index. Call it after
+     * upsertLatestBalance: the latest-balance row lock makes concurrent recordings for the account
+     * recompute in turn, each seeing the balances the others committed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_monthly_balances (account_id, balance_month, closing_balance, closing_date, " +
+           "min_balance, max_balance, balance_sum, balance_count, updated_at) " +
+           "SELECT ab.account_id, CAST(date_trunc('month', CAST(ab.balance_date AS timestamp)) AS date) AS balance_month, " +
+           "(array_agg(ab.balance_amount ORDER BY ab.balance_date DESC))[1], MAX(ab.balance_date), " +
+           "MIN(ab.balance_amount), MAX(ab.balance_amount), SUM(ab.balance_amount), COUNT(*), now() " +
+           "FROM account_balances ab " +
+           "WHERE ab.account_id = :accountId " +
+           "AND ab.balance_date >= CAST(date_trunc('month', CAST(:from AS timestamp)) AS date) " +
+           "AND ab.balance_date < CAST(date_trunc('month', CAST(:to AS timestamp)) + interval '1 month' AS date) " +
+           "GROUP BY ab.account_id, balance_month " +
+           "ON CONFLICT (account_id, balance_month) DO UPDATE SET closing_balance = EXCLUDED.closing_balance, " +
+           "closing_date = EXCLUDED.closing_date, min_balance = EXCLUDED.min_balance, " +
+           "max_balance = EXCLUDED.max_balance, balance_sum = EXCLUDED.balance_sum, " +
+           "balance_count = EXCLUDED.balance_count, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int refreshMonthlyBalances(
+            @Param("accountId") Long accountId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // Rollups of the months from {@code from} to {@code to} that no longer have any balance
+    @Modifying
+    @Query(value = "DELETE FROM account_monthly_balances r " +
+           "WHERE r.account_id = :accountId " +
+           "AND r.balance_month BETWEEN CAST(date_trunc('month', CAST(:from AS timestamp)) AS date) AND :to " +
+           "AND NOT EXISTS (SELECT 1 FROM account_balances ab WHERE ab.account_id = r.account_id " +
+           "AND ab.balance_date >= r.balance_month AND ab.balance_date < CAST(r.balance_month + interval '1 month' AS date))",
+           nativeQuery = true)
+    int deleteEmptyMonthlyBalances(
+            @Param("accountId") Long accountId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    /*
+     * An account's balances, newest first, a page at a time: the first page, then each following
+     * one before the balance date of the last row of the previous page. An account has one balance
+     * per day, so the date alone orders them; both read the unique index backwards.
+     */
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.AccountDtos$BalanceResponse(" +
+           "b.account.id, b.balanceAmount, b.balanceDate) " +
+           "FROM AccountBalance b WHERE b.account.id = :accountId ORDER BY b.balanceDate DESC")
+    List<BalanceResponse> findResponsePageByAccountId(@Param("accountId") Long accountId, Limit limit);
+
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.AccountDtos$BalanceResponse(" +
+           "b.account.id, b.balanceAmount, b.balanceDate) " +
+           "FROM AccountBalance b WHERE b.account.id = :accountId AND b.balanceDate < :balanceDate " +
+           "ORDER BY b.balanceDate DESC")
+    List<BalanceResponse> findResponsePageByAccountIdAfter(
+            @Param("accountId") Long accountId,
+            @Param("balanceDate") LocalDate balanceDate,
+            Limit limit);
+
+    // The whole history, read from a database cursor a fetch at a time; close the stream
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.AccountDtos$BalanceResponse(" +
+           "b.account.id, b.balanceAmount, b.balanceDate) " +
+           "FROM AccountBalance b WHERE b.account.id = :accountId ORDER BY b.balanceDate DESC")
+    Stream<BalanceResponse> streamResponsesByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.AccountDtos$BalanceResponse(" +
+           "l.accountId, l.balanceAmount, l.balanceDate) " +
+           "FROM AccountLatestBalance l WHERE l.accountId = :accountId")
+    Optional<BalanceResponse> findLatestResponseByAccountId(@Param("accountId") Long accountId);
+
+    /*
+     * Net worth per bucket ({@code unit} is "day" or "month") from the first bucket touching
+     * {@code from} to {@code to}, reading each account's balances in the range once, in index order:
+     * - opening: each account's last balance before the range;
+     * - changes: each account's closing balance per bucket minus its previous closing (or opening),
+     *   summed over the accounts per bucket;
+     * - the running sum of the changes over the buckets, on top of the opening total, carries every
+     *   account's balance forward through buckets where it has none.
+     * Accounts without any balance yet count as zero.
+     */
+    @Query(value = "WITH opening AS (" +
+           "  SELECT a.id AS account_id, (SELECT ab.balance_amount FROM account_balances ab " +
+           "    WHERE ab.account_id = a.id AND ab.balance_date < :from ORDER BY ab.balance_date DESC LIMIT 1) AS balance_amount " +
+           "  FROM bank_accounts a WHERE a.is_active AND a.id IN (" +
+           "    SELECT uba.bank_account_id FROM user_bank_accounts uba JOIN users u ON u.id = uba.user_id " +
+           "    WHERE u.household_id = :householdId AND u.deleted_at IS NULL)" +
+           "), changes AS (" +
+           "  SELECT ch.bucket_start, SUM(ch.change) AS change " +
+           "  FROM opening o CROSS JOIN LATERAL (" +
+           "    SELECT closing.bucket_start, closing.balance_amount - COALESCE(" +
+           "      LAG(closing.balance_amount) OVER (ORDER BY closing.bucket_start), o.balance_amount, 0) AS change " +
+           "    FROM (" +
+           "      SELECT DISTINCT ON (bucket_start) " +
+           "        CAST(date_trunc(:unit, CAST(ab.balance_date AS timestamp)) AS date) AS bucket_start, ab.balance_amount " +
+           "      FROM account_balances ab " +
+           "      WHERE ab.account_id = o.account_id AND ab.balance_date BETWEEN :from AND :to " +
+           "      ORDER BY bucket_start, ab.balance_date DESC" +
+           "    ) closing" +
+           "  ) ch " +
+           "  GROUP BY ch.bucket_start" +
+           "), buckets AS (" +
+           "  SELECT CAST(b.bucket AS date) AS bucket_start FROM generate_series(" +
+           "    date_trunc(:unit, CAST(:from AS timestamp)), CAST(:to AS timestamp), " +
+           "    CAST('1 ' || CAST(:unit AS text) AS interval)) AS b(bucket)" +
+           ") " +
+           "SELECT bk.bucket_start AS \"bucketStart\", " +
+           "  (SELECT COALESCE(SUM(o.balance_amount), 0) FROM opening o) " +
+           "    + SUM(COALESCE(ch.change, 0)) OVER (ORDER BY bk.bucket_start) AS \"netWorth\" " +
+           "FROM buckets bk LEFT JOIN changes ch ON ch.bucket_start = bk.bucket_start " +
+           "ORDER BY bk.bucket_start",
+           nativeQuery = true)
+    List<NetWorthRow> findNetWorthPointsByHouseholdId(
+            @Param("householdId") Long householdId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("unit") String unit);
+
+    // Month-end figures of the household's active accounts from the rollups, one row per account and month
+    @Query(value = "SELECT a.id AS \"accountId\", a.account_name AS \"accountName\", " +
+           "r.balance_month AS \"balanceMonth\", r.closing_balance AS \"closingBalance\", " +
+           "r.closing_date AS \"closingDate\", r.min_balance AS \"minBalance\", r.max_balance AS \"maxBalance\", " +
+           "ROUND(r.balance_sum / r.balance_count, 2) AS \"averageBalance\", r.balance_count AS \"balanceCount\" " +
+           "FROM bank_accounts a JOIN account_monthly_balances r ON r.account_id = a.id " +
+           "WHERE a.is_active AND a.id IN (" +
+           "  SELECT uba.bank_account_id FROM user_bank_accounts uba JOIN users u ON u.id = uba.user_id " +
+           "  WHERE u.household_id = :householdId AND u.deleted_at IS NULL) " +
+           "AND r.balance_month BETWEEN :fromMonth AND :toMonth " +
+           "ORDER BY a.account_name, a.id, r.balance_month",
+           nativeQuery = true)
+    List<MonthlyBalanceRow> findMonthlyBalancesByHouseholdId(
+            @Param("householdId") Long householdId,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+
+    /*
+     * The monthly net worth series from {@code from} to {@code to}, as findNetWorthPointsByHouseholdId
+     * computes it with unit "month", but reading the months wholly inside the range from the monthly
+     * rollups: one closing balance per account and month instead of every recorded day. Only the
+     * partial months at either end, before {@code fullFrom} and after {@code fullTo}, are read from
+     * the balance history, up to {@code to}. {@code fullFrom} is the first day of the first whole
+     * month and {@code fullTo} the last day of the last one; fullFrom = to + 1 and fullTo = to when
+     * there is none, so the history covers the whole range.
+     */
+    @Query(value = "WITH opening AS (" +
+           "  SELECT a.id AS account_id, (SELECT ab.balance_amount FROM account_balances ab " +
+           "    WHERE ab.account_id = a.id AND ab.balance_date < :from ORDER BY ab.balance_date DESC LIMIT 1) AS balance_amount " +
+           "  FROM bank_accounts a WHERE a.is_active AND a.id IN (" +
+           "    SELECT uba.bank_account_id FROM user_bank_accounts uba JOIN users u ON u.id = uba.user_id " +
+           "    WHERE u.household_id = :householdId AND u.deleted_at IS NULL)" +
+           "), changes AS (" +
+           "  SELECT ch.balance_month, SUM(ch.change) AS change " +
+           "  FROM opening o CROSS JOIN LATERAL (" +
+           "    SELECT closing.balance_month, closing.balance_amount - COALESCE(" +
+           "      LAG(closing.balance_amount) OVER (ORDER BY closing.balance_month), o.balance_amount, 0) AS change " +
+           "    FROM (" +
+           "      (SELECT DISTINCT ON (balance_month) " +
+           "        CAST(date_trunc('month', CAST(ab.balance_date AS timestamp)) AS date) AS balance_month, ab.balance_amount " +
+           "      FROM account_balances ab " +
+           "      WHERE ab.account_id = o.account_id AND ab.balance_date >= :from AND ab.balance_date < :fullFrom " +
+           "      ORDER BY balance_month, ab.balance_date DESC) " +
+           "      UNION ALL " +
+           "      SELECT r.balance_month, r.closing_balance FROM account_monthly_balances r " +
+           "      WHERE r.account_id = o.account_id AND r.balance_month BETWEEN :fullFrom AND :fullTo " +
+           "      UNION ALL " +
+           "      (SELECT CAST(date_trunc('month', CAST(ab.balance_date AS timestamp)) AS date), ab.balance_amount " +
+           "      FROM account_balances ab " +
+           "      WHERE ab.account_id = o.account_id AND ab.balance_date > :fullTo AND ab.balance_date <= :to " +
+           "      ORDER BY ab.balance_date DESC LIMIT 1)" +
+           "    ) closing" +
+           "  ) ch " +
+           "  GROUP BY ch.balance_month" +
+           "), months AS (" +
+           "  SELECT CAST(m.month AS date) AS balance_month FROM generate_series(" +
+           "    date_trunc('month', CAST(:from AS timestamp)), CAST(:to AS timestamp), interval '1 month') AS m(month)" +
+           ") " +
+           "SELECT m.balance_month AS \"bucketStart\", " +
+           "  (SELECT COALESCE(SUM(o.balance_amount), 0) FROM opening o) " +
+           "    + SUM(COALESCE(ch.change, 0)) OVER (ORDER BY m.balance_month) AS \"netWorth\" " +
+           "FROM months m LEFT JOIN changes ch ON ch.balance_month = m.balance_month " +
+           "ORDER BY m.balance_month",
+           nativeQuery = true)
+    List<NetWorthRow> findMonthlyNetWorthPointsByHouseholdId(
+            @Param("householdId") Long householdId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("fullFrom") LocalDate fullFrom,
+            @Param("fullTo") LocalDate fullTo);
+}
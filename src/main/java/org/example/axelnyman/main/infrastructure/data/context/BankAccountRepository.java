@@ -0,0 +1,34 @@
+package org.example.axelnyman.main.infrastructure.data.context;
+
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountOverviewResponse;
+import org.example.axelnyman.main.domain.model.BankAccount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
+
+    // An account belongs to the households of the active users linked to it
+    @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END FROM BankAccount a JOIN a.users u " +
+           "WHERE a.id = :id AND a.isActive = true AND u.household.id = :householdId AND u.deletedAt IS NULL")
+    boolean existsActiveByIdAndHouseholdId(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    // Current balances come from the latest-balance row, one per account, never from the history
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.AccountDtos$AccountOverviewResponse(" +
+           "a.id, a.accountName, l.balanceAmount, l.balanceDate) " +
+           "FROM BankAccount a LEFT JOIN AccountLatestBalance l ON l.accountId = a.id " +
+           "WHERE a.isActive = true AND a.id IN (" +
+           "SELECT ua.id FROM BankAccount ua JOIN ua.users u " +
+           "WHERE u.household.id = :householdId AND u.deletedAt IS NULL) " +
+           "ORDER BY a.accountName, a.id")
+    List<AccountOverviewResponse> findActiveOverviewsByHouseholdId(@Param("householdId") Long householdId);
+
+    // Walks every account id in order, a page at a time, for batch jobs
+    @Query("SELECT a.id FROM BankAccount a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+}
@@ -1,51 +1,114 @@
 package org.example.axelnyman.main.infrastructure.data.context;
 
+import jakarta.persistence.QueryHint;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface HouseholdInvitationRepository extends JpaRepository<HouseholdInvitation, Long> {
 
-    @Query("SELECT hi FROM HouseholdInvitation hi WHERE hi.household.id = :householdId AND hi.invitedUser.id = :invitedUserId AND hi.status = :status")
-    Optional<HouseholdInvitation> findActiveByHouseholdAndInvitedUser(
-            @Param("householdId") Long householdId, 
-            @Param("invitedUserId") Long invitedUserId, 
-            @Param("status") InvitationStatus status);
-
     Optional<HouseholdInvitation> findByToken(String token);
 
-    @Query("SELECT hi FROM HouseholdInvitation hi " +
+    /*
+     * Invitations received by a user with a status, newest first, a page at a time: the first page,
+     * then each following one after the (createdAt, id) of the last row of the previous page. Both
+     * read idx_household_invitations_invited_user_created backwards from where the page starts.
+     */
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.HouseholdDtos$InvitationResponse(" +
+           "hi.id, h.id, h.name, iu.email, ib.id, ib.firstName, ib.lastName, ib.email, ib.createdAt, " +
+           "hi.createdAt, hi.expiresAt, hi.status) " +
+           "FROM HouseholdInvitation hi " +
+           "JOIN hi.household h JOIN hi.invitedUser iu JOIN hi.invitedByUser ib " +
            "WHERE hi.invitedUser.id = :invitedUserId " +
            "AND hi.status = :status " +
-           "ORDER BY hi.createdAt DESC")
-    List<HouseholdInvitation> findByInvitedUserAndStatus(
-            @Param("invitedUserId") Long invitedUserId, 
+           "ORDER BY hi.createdAt DESC, hi.id DESC")
+    List<InvitationResponse> findResponsePageByInvitedUserAndStatus(
+            @Param("invitedUserId") Long invitedUserId,
+            @Param("status") InvitationStatus status,
+            Limit limit);
+
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.HouseholdDtos$InvitationResponse(" +
+           "hi.id, h.id, h.name, iu.email, ib.id, ib.firstName, ib.lastName, ib.email, ib.createdAt, " +
+           "hi.createdAt, hi.expiresAt, hi.status) " +
+           "FROM HouseholdInvitation hi " +
+           "JOIN hi.household h JOIN hi.invitedUser iu JOIN hi.invitedByUser ib " +
+           "WHERE hi.invitedUser.id = :invitedUserId " +
+           "AND hi.status = :status " +
+           "AND (hi.createdAt, hi.id) < (:createdAt, :id) " +
+           "ORDER BY hi.createdAt DESC, hi.id DESC")
+    List<InvitationResponse> findResponsePageByInvitedUserAndStatusAfter(
+            @Param("invitedUserId") Long invitedUserId,
+            @Param("status") InvitationStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Every page at once, read from a database cursor a fetch at a time; close the stream
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.HouseholdDtos$InvitationResponse(" +
+           "hi.id, h.id, h.name, iu.email, ib.id, ib.firstName, ib.lastName, ib.email, ib.createdAt, " +
+           "hi.createdAt, hi.expiresAt, hi.status) " +
+           "FROM HouseholdInvitation hi " +
+           "JOIN hi.household h JOIN hi.invitedUser iu JOIN hi.invitedByUser ib " +
+           "WHERE hi.invitedUser.id = :invitedUserId " +
+           "AND hi.status = :status " +
+           "ORDER BY hi.createdAt DESC, hi.id DESC")
+    Stream<InvitationResponse> streamResponsesByInvitedUserAndStatus(
+            @Param("invitedUserId") Long invitedUserId,
             @Param("status") InvitationStatus status);
 
-    @Modifying
-    @Query("UPDATE HouseholdInvitation hi SET hi.status = :expiredStatus, hi.updatedAt = :currentTime " +
-           "WHERE hi.status = :pendingStatus AND hi.expiresAt < :currentTime")
-    int updateExpiredInvitationsToExpired(
-            @Param("expiredStatus") InvitationStatus expiredStatus,
-            @Param("pendingStatus") InvitationStatus pendingStatus,
-            @Param("currentTime") LocalDateTime currentTime);
+    // Not @Modifying: RETURNING makes the update yield rows, [id, invited_user_id] per expired invitation
+    @Query(value = "UPDATE household_invitations SET status = 'EXPIRED', updated_at = :currentTime, version = version + 1 " +
+           "WHERE id IN (SELECT id FROM household_invitations " +
+           "WHERE status = 'PENDING' AND expires_at < :currentTime " +
+           "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id, invited_user_id",
+           nativeQuery = true)
+    List<Object[]> expirePendingInvitationsBatch(
+            @Param("currentTime") LocalDateTime currentTime,
+            @Param("batchSize") int batchSize);
 
-    @Query("SELECT hi FROM HouseholdInvitation hi " +
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.HouseholdDtos$InvitationResponse(" +
+           "hi.id, h.id, h.name, iu.email, ib.id, ib.firstName, ib.lastName, ib.email, ib.createdAt, " +
+           "hi.createdAt, hi.expiresAt, hi.status) " +
+           "FROM HouseholdInvitation hi " +
+           "JOIN hi.household h JOIN hi.invitedUser iu JOIN hi.invitedByUser ib " +
            "WHERE hi.invitedUser.id = :invitedUserId " +
            "AND hi.status = :status " +
            "AND hi.expiresAt > :currentTime " +
            "ORDER BY hi.createdAt DESC")
-    List<HouseholdInvitation> findPendingNonExpiredByInvitedUser(
+    List<InvitationResponse> findPendingNonExpiredResponsesByInvitedUser(
             @Param("invitedUserId") Long invitedUserId,
             @Param("status") InvitationStatus status,
             @Param("currentTime") LocalDateTime currentTime);
+
+    // Digest of the ids and versions of everything findPendingNonExpiredResponsesByInvitedUser
+    // returns, with the same filter, so an invitation passing its expiry changes it too
+    @Query(value = "SELECT left(md5(COALESCE(string_agg(" +
+           "hi.id || ':' || hi.version || ':' || h.version || ':' || iu.version || ':' || ib.version, " +
+           "',' ORDER BY hi.id), '')), 16) " +
+           "FROM household_invitations hi " +
+           "JOIN households h ON h.id = hi.household_id " +
+           "JOIN users iu ON iu.id = hi.invited_user_id " +
+           "JOIN users ib ON ib.id = hi.invited_by_user_id " +
+           "WHERE hi.invited_user_id = :invitedUserId " +
+           "AND hi.status = 'PENDING' " +
+           "AND hi.expires_at > :currentTime",
+           nativeQuery = true)
+    String findPendingNonExpiredVersionTagByInvitedUser(
+            @Param("invitedUserId") Long invitedUserId,
+            @Param("currentTime") LocalDateTime currentTime);
 }
\ No newline at end of file
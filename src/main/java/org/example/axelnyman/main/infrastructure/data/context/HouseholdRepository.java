@@ -13,4 +13,13 @@ public interface HouseholdRepository extends JpaRepository<Household, Long> {
     
     @Query("SELECT h FROM Household h LEFT JOIN FETCH h.users u WHERE h.id = :id AND (u.deletedAt IS NULL OR u IS NULL)")
     Optional<Household> findByIdWithActiveMembers(@Param("id") Long id);
+
+    // Household version plus a digest of the ids and versions of its active members: changes
+    // whenever the household details or the member list would
+    @Query(value = "SELECT h.version || '-' || " +
+           "left(md5(COALESCE(string_agg(u.id || ':' || u.version, ',' ORDER BY u.id), '')), 16) " +
+           "FROM households h LEFT JOIN users u ON u.household_id = h.id AND u.deleted_at IS NULL " +
+           "WHERE h.id = :id GROUP BY h.id",
+           nativeQuery = true)
+    Optional<String> findVersionTagById(@Param("id") Long id);
 }
\ No newline at end of file
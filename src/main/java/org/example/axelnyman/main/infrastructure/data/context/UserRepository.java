@@ -1,7 +1,10 @@
 package org.example.axelnyman.main.infrastructure.data.context;
 
+import org.example.axelnyman.main.domain.dtos.UserDtos.LoginCredentials;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
 import org.example.axelnyman.main.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,9 +22,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.deletedAt IS NULL")
     Optional<User> findActiveByEmail(@Param("email") String email);
 
-    @Query("SELECT u FROM User u WHERE u.household.id = :householdId AND u.deletedAt IS NULL")
-    List<User> findActiveByHouseholdId(@Param("householdId") Long householdId);
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.UserDtos$LoginCredentials(" +
+           "u.id, u.firstName, u.lastName, u.email, u.hashedPassword, h.id, h.name, u.createdAt) " +
+           "FROM User u LEFT JOIN u.household h WHERE u.email = :email AND u.deletedAt IS NULL")
+    Optional<LoginCredentials> findActiveLoginCredentialsByEmail(@Param("email") String email);
 
-    @Query("SELECT u FROM User u WHERE u.id = :id AND u.household.id = :householdId AND u.deletedAt IS NULL")
-    Optional<User> findActiveByIdAndHouseholdId(@Param("id") Long id, @Param("householdId") Long householdId);
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.UserDtos$UserResponse(" +
+           "u.id, u.firstName, u.lastName, u.email, h.id, h.name, u.createdAt) " +
+           "FROM User u LEFT JOIN u.household h WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+    // User version plus the household's, whose name is part of the profile
+    @Query(value = "SELECT u.version || '-' || COALESCE(h.id || ':' || h.version, '') " +
+           "FROM users u LEFT JOIN households h ON h.id = u.household_id WHERE u.id = :id",
+           nativeQuery = true)
+    Optional<String> findProfileVersionTagById(@Param("id") Long id);
+
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.UserDtos$UserResponse(" +
+           "u.id, u.firstName, u.lastName, u.email, h.id, h.name, u.createdAt) " +
+           "FROM User u JOIN u.household h WHERE u.household.id = :householdId AND u.deletedAt IS NULL")
+    List<UserResponse> findActiveResponsesByHouseholdId(@Param("householdId") Long householdId);
+
+    @Query("SELECT new org.example.axelnyman.main.domain.dtos.UserDtos$UserResponse(" +
+           "u.id, u.firstName, u.lastName, u.email, h.id, h.name, u.createdAt) " +
+           "FROM User u JOIN u.household h " +
+           "WHERE u.id = :id AND u.household.id = :householdId AND u.deletedAt IS NULL")
+    Optional<UserResponse> findActiveResponseByIdAndHouseholdId(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Query("SELECT u FROM User u JOIN FETCH u.household h WHERE u.id = :id AND h.id = :householdId AND u.deletedAt IS NULL")
+    Optional<User> findActiveByIdAndHouseholdIdWithHousehold(@Param("id") Long id, @Param("householdId") Long householdId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.hashedPassword = :newHash WHERE u.id = :id AND u.hashedPassword = :currentHash")
+    int replaceHashedPassword(
+            @Param("id") Long id,
+            @Param("currentHash") String currentHash,
+            @Param("newHash") String newHash);
 }
@@ -0,0 +1,174 @@
+package org.example.axelnyman.main.infrastructure.data.copy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.RejectedRow;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads an account's balance history from an upload with {@code COPY}: valid rows are streamed
+ * into a temporary staging table as they are parsed, then merged into {@code account_balances}
+ * with one upsert, the latest balance moved forward and the monthly rollups of the months it spans
+ * recomputed, all in the caller's transaction. Nothing goes through the persistence context, and
+ * neither the upload nor the rows are held in memory.
+ * When a day appears more than once in an upload, its last line wins.
+ */
+@Component
+public class BalanceCopyImporter {
+
+    // Rejections beyond this are counted but not listed
+    private static final int MAX_REPORTED_REJECTIONS = 20;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE =
+            "CREATE TEMPORARY TABLE balance_import (" +
+            "line BIGINT NOT NULL, balance_date DATE NOT NULL, balance_amount NUMERIC(15, 2) NOT NULL" +
+            ") ON COMMIT DROP";
+    private static final String COPY_INTO_STAGING_TABLE =
+            "COPY balance_import (line, balance_date, balance_amount) FROM STDIN (FORMAT csv)";
+    private static final String MERGE_BALANCES =
+            "INSERT INTO account_balances (account_id, balance_amount, balance_date, created_at) " +
+            "SELECT DISTINCT ON (balance_date) ?, balance_amount, balance_date, now() " +
+            "FROM balance_import ORDER BY balance_date, line DESC " +
+            "ON CONFLICT (account_id, balance_date) DO UPDATE SET balance_amount = EXCLUDED.balance_amount";
+    // Same rule as AccountBalanceRepository.upsertLatestBalance, for the newest imported day
+    private static final String MERGE_LATEST_BALANCE =
+            "INSERT INTO account_latest_balances (account_id, balance_amount, balance_date, updated_at) " +
+            "SELECT ?, balance_amount, balance_date, now() " +
+            "FROM balance_import ORDER BY balance_date DESC, line DESC LIMIT 1 " +
+            "ON CONFLICT (account_id) DO UPDATE SET balance_amount = EXCLUDED.balance_amount, " +
+            "balance_date = EXCLUDED.balance_date, updated_at = EXCLUDED.updated_at " +
+            "WHERE account_latest_balances.balance_date <= EXCLUDED.balance_date";
+    // Same rule as AccountBalanceRepository.refreshMonthlyBalances, for the months the import spans
+    private static final String REFRESH_MONTHLY_BALANCES =
+            "INSERT INTO account_monthly_balances (account_id, balance_month, closing_balance, closing_date, " +
+            "min_balance, max_balance, balance_sum, balance_count, updated_at) " +
+            "SELECT ab.account_id, CAST(date_trunc('month', CAST(ab.balance_date AS timestamp)) AS date) AS balance_month, " +
+            "(array_agg(ab.balance_amount ORDER BY ab.balance_date DESC))[1], MAX(ab.balance_date), " +
+            "MIN(ab.balance_amount), MAX(ab.balance_amount), SUM(ab.balance_amount), COUNT(*), now() " +
+            "FROM account_balances ab, (" +
+            "SELECT CAST(date_trunc('month', CAST(MIN(balance_date) AS timestamp)) AS date) AS first_day, " +
+            "CAST(date_trunc('month', CAST(MAX(balance_date) AS timestamp)) + interval '1 month' AS date) AS end_day " +
+            "FROM balance_import) imported " +
+            "WHERE ab.account_id = ? AND ab.balance_date >= imported.first_day AND ab.balance_date < imported.end_day " +
+            "GROUP BY ab.account_id, balance_month " +
+            "ON CONFLICT (account_id, balance_month) DO UPDATE SET closing_balance = EXCLUDED.closing_balance, " +
+            "closing_date = EXCLUDED.closing_date, min_balance = EXCLUDED.min_balance, " +
+            "max_balance = EXCLUDED.max_balance, balance_sum = EXCLUDED.balance_sum, " +
+            "balance_count = EXCLUDED.balance_count, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+    private final Timer durationTimer;
+
+    public BalanceCopyImporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.importedCounter = Counter.builder("balances.import.rows")
+                .description("Balance rows read by imports")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("balances.import.rows")
+                .description("Balance rows read by imports")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.durationTimer = Timer.builder("balances.import.duration")
+                .description("Time to read, copy and merge one balance import")
+                .register(meterRegistry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public BalanceImportResponse importBalances(Long accountId, Reader reader, BalanceImportFormat format) {
+        long startedAt = System.nanoTime();
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        Staged staged = jdbcTemplate.execute((ConnectionCallback<Staged>) connection ->
+                copy(connection.unwrap(PGConnection.class), reader, format));
+        if (staged.rows > 0) {
+            jdbcTemplate.update(MERGE_BALANCES, accountId);
+            jdbcTemplate.update(MERGE_LATEST_BALANCE, accountId);
+            jdbcTemplate.update(REFRESH_MONTHLY_BALANCES, accountId);
+        }
+
+        long elapsedNanos = System.nanoTime() - startedAt;
+        durationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        importedCounter.increment(staged.rows);
+        rejectedCounter.increment(staged.rejected);
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        return new BalanceImportResponse(
+                staged.rows,
+                staged.rejected,
+                staged.rejections,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                Math.round(staged.rows / seconds));
+    }
+
+    private Staged copy(PGConnection connection, Reader reader, BalanceImportFormat format) throws SQLException {
+        Staged staged = new Staged();
+        PGCopyOutputStream copyStream = new PGCopyOutputStream(connection, COPY_INTO_STAGING_TABLE, COPY_BUFFER_SIZE);
+        Writer out = new OutputStreamWriter(copyStream, StandardCharsets.UTF_8);
+        try {
+            new BalanceImportReader(reader, format, objectMapper).readAll(new BalanceImportReader.RowHandler() {
+                @Override
+                public void accept(long line, LocalDate balanceDate, BigDecimal balanceAmount) throws IOException {
+                    out.write(line + "," + balanceDate + "," + balanceAmount.toPlainString() + "\n");
+                    staged.rows++;
+                }
+
+                @Override
+                public void reject(long line, String reason) {
+                    staged.rejected++;
+                    if (staged.rejections.size() < MAX_REPORTED_REJECTIONS) {
+                        staged.rejections.add(new RejectedRow(line, reason));
+                    }
+                }
+            });
+            out.flush();
+            copyStream.endCopy();
+            return staged;
+        } catch (IOException e) {
+            // Usually the client aborting the upload; the transaction rolls back
+            cancel(copyStream);
+            throw new UncheckedIOException("Reading the balance import failed", e);
+        } catch (RuntimeException e) {
+            cancel(copyStream);
+            throw e;
+        }
+    }
+
+    private static void cancel(PGCopyOutputStream copyStream) throws SQLException {
+        if (copyStream.isActive()) {
+            copyStream.cancelCopy();
+        }
+    }
+
+    private static final class Staged {
+        private long rows;
+        private long rejected;
+        private final List<RejectedRow> rejections = new ArrayList<>();
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.axelnyman.main.infrastructure.data.copy;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads balance rows from an upload one line at a time, so memory stays constant however large it
+ * is. CSV lines are {@code balanceDate,balanceAmount}, with an optional header line; NDJSON lines
+ * are objects with {@code balanceDate} and {@code balanceAmount}. Blank lines are skipped. Every
+ * other line is handed to the {@link RowHandler}, either as a balance or as a rejection with the
+ * reason, numbered from 1.
+ */
+public class BalanceImportReader {
+
+    /** Lines longer than this are rejected without being held in memory. */
+    static final int MAX_LINE_LENGTH = 1_024;
+
+    private static final String CSV_HEADER = "balancedate,balanceamount";
+    private static final int MAX_INTEGER_DIGITS = 13;
+    private static final int MAX_FRACTION_DIGITS = 2;
+
+    public interface RowHandler {
+        void accept(long line, LocalDate balanceDate, BigDecimal balanceAmount) throws IOException;
+
+        void reject(long line, String reason);
+    }
+
+    private final Reader reader;
+    private final BalanceImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder lineBuffer = new StringBuilder();
+    private boolean endOfInput;
+
+    public BalanceImportReader(Reader reader, BalanceImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    public void readAll(RowHandler handler) throws IOException {
+        for (long line = 1; !endOfInput; line++) {
+            boolean complete = readLine();
+            String text = lineBuffer.toString().strip();
+            if (!complete) {
+                handler.reject(line, "Line exceeds " + MAX_LINE_LENGTH + " characters");
+            } else if (text.isEmpty()) {
+                continue;
+            } else if (line == 1 && format == BalanceImportFormat.CSV && isCsvHeader(text)) {
+                continue;
+            } else {
+                parse(line, text, handler);
+            }
+        }
+    }
+
+    // Reads the next line into lineBuffer; false when it was too long and has been skipped instead
+    private boolean readLine() throws IOException {
+        lineBuffer.setLength(0);
+        boolean tooLong = false;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (lineBuffer.length() < MAX_LINE_LENGTH) {
+                lineBuffer.append((char) c);
+            } else {
+                tooLong = true;
+            }
+        }
+        endOfInput = c == -1;
+        return !tooLong;
+    }
+
+    private void parse(long line, String text, RowHandler handler) throws IOException {
+        String date;
+        String amount;
+        if (format == BalanceImportFormat.CSV) {
+            String[] fields = text.split(",", -1);
+            if (fields.length != 2) {
+                handler.reject(line, "Expected 2 fields, found " + fields.length);
+                return;
+            }
+            date = unquote(fields[0]);
+            amount = unquote(fields[1]);
+        } else {
+            JsonNode row;
+            try {
+                row = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                handler.reject(line, "Invalid JSON");
+                return;
+            }
+            if (!row.isObject()) {
+                handler.reject(line, "Expected a JSON object");
+                return;
+            }
+            date = row.path("balanceDate").isTextual() ? row.get("balanceDate").asText() : null;
+            amount = row.path("balanceAmount").isNumber() || row.path("balanceAmount").isTextual()
+                    ? row.get("balanceAmount").asText() : null;
+        }
+
+        LocalDate balanceDate;
+        try {
+            balanceDate = date == null ? null : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            balanceDate = null;
+        }
+        if (balanceDate == null) {
+            handler.reject(line, "Invalid balance date");
+            return;
+        }
+        BigDecimal balanceAmount = parseAmount(amount);
+        if (balanceAmount == null) {
+            handler.reject(line, "Invalid balance amount");
+            return;
+        }
+        handler.accept(line, balanceDate, balanceAmount);
+    }
+
+    // Same bounds as RecordBalanceRequest: at most 13 integer digits and 2 decimals
+    private static BigDecimal parseAmount(String amount) {
+        if (amount == null) {
+            return null;
+        }
+        try {
+            BigDecimal value = new BigDecimal(amount);
+            if (value.scale() > MAX_FRACTION_DIGITS || value.precision() - value.scale() > MAX_INTEGER_DIGITS) {
+                return null;
+            }
+            return value.setScale(MAX_FRACTION_DIGITS);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isCsvHeader(String text) {
+        return text.replace("\"", "").replace(" ", "").equalsIgnoreCase(CSV_HEADER);
+    }
+
+    private static String unquote(String field) {
+        String value = field.strip();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).strip();
+        }
+        return value;
+    }
+}
@@ -1,19 +1,48 @@
 package org.example.axelnyman.main.infrastructure.data.services;
 
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.abstracts.IHouseholdCache;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountOverviewResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.MonthlyBalanceResponse;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthGranularity;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthPoint;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.ExpiredInvitation;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.LoginCredentials;
+import org.example.axelnyman.main.domain.dtos.UserDtos.UserResponse;
+import org.example.axelnyman.main.domain.extensions.CursorExtensions.InvitationCursor;
+import org.example.axelnyman.main.domain.model.BankAccount;
 import org.example.axelnyman.main.domain.model.Household;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
 import org.example.axelnyman.main.domain.model.User;
+import org.example.axelnyman.main.infrastructure.data.bloom.RegisteredEmailFilter;
+import org.example.axelnyman.main.infrastructure.data.context.AccountBalanceRepository;
+import org.example.axelnyman.main.infrastructure.data.context.AccountBalanceRepository.NetWorthRow;
+import org.example.axelnyman.main.infrastructure.data.context.BankAccountRepository;
 import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
 import org.example.axelnyman.main.infrastructure.data.context.HouseholdRepository;
 import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.example.axelnyman.main.infrastructure.data.copy.BalanceCopyImporter;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class DataService implements IDataService {
@@ -21,95 +50,342 @@ public class DataService implements IDataService {
     private final UserRepository userRepository;
     private final HouseholdRepository householdRepository;
     private final HouseholdInvitationRepository householdInvitationRepository;
+    private final BankAccountRepository bankAccountRepository;
+    private final AccountBalanceRepository accountBalanceRepository;
+    private final BalanceCopyImporter balanceCopyImporter;
+    private final TransactionTemplate transactionTemplate;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final IHouseholdCache householdCache;
 
     public DataService(UserRepository userRepository, HouseholdRepository householdRepository,
-            HouseholdInvitationRepository householdInvitationRepository) {
+            HouseholdInvitationRepository householdInvitationRepository, BankAccountRepository bankAccountRepository,
+            AccountBalanceRepository accountBalanceRepository, BalanceCopyImporter balanceCopyImporter,
+            TransactionTemplate transactionTemplate, RegisteredEmailFilter registeredEmailFilter,
+            IHouseholdCache householdCache) {
         this.userRepository = userRepository;
         this.householdRepository = householdRepository;
         this.householdInvitationRepository = householdInvitationRepository;
+        this.bankAccountRepository = bankAccountRepository;
+        this.accountBalanceRepository = accountBalanceRepository;
+        this.balanceCopyImporter = balanceCopyImporter;
+        this.transactionTemplate = transactionTemplate;
+        this.registeredEmailFilter = registeredEmailFilter;
+        this.householdCache = householdCache;
     }
 
     @Override
     public User saveUser(User user) {
-        return userRepository.save(user);
+        boolean isNew = user.getId() == null;
+        User savedUser = userRepository.save(user);
+        registeredEmailFilter.add(savedUser.getEmail());
+        if (isNew) {
+            householdCache.evict(savedUser.getHousehold() != null ? savedUser.getHousehold().getId() : null);
+        } else {
+            // The household the user may have left is unknown here, and existing users are rarely saved
+            householdCache.evictAll();
+        }
+        return savedUser;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
 
     @Override
+    @Transactional
     public boolean deleteUserById(Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            return true;
+        Optional<User> user = userRepository.findById(id);
+        if (user.isEmpty()) {
+            return false;
         }
-        return false;
+        userRepository.delete(user.get());
+        householdCache.evict(user.get().getHousehold() != null ? user.get().getHousehold().getId() : null);
+        return true;
     }
 
     @Override
     public boolean userExistsByEmailIncludingDeleted(String email) {
-        return userRepository.existsByEmailIncludingDeleted(email);
+        // Not transactional itself: a filter miss must not open a transaction or borrow a connection
+        if (!registeredEmailFilter.mightContain(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmailIncludingDeleted(email);
+        if (!exists) {
+            registeredEmailFilter.recordFalsePositive();
+        }
+        return exists;
     }
 
     @Override
+    public Optional<User> insertUserWithHousehold(User user) {
+        try {
+            // Both inserts are flushed as one batch on commit, which is where a duplicate email surfaces
+            User savedUser = transactionTemplate.execute(status -> {
+                householdRepository.save(user.getHousehold());
+                return userRepository.save(user);
+            });
+            registeredEmailFilter.add(savedUser.getEmail());
+            return Optional.of(savedUser);
+        } catch (DataIntegrityViolationException e) {
+            if (violatesConstraint(e, User.EMAIL_UNIQUE_CONSTRAINT)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<User> findActiveUserByEmail(String email) {
         return userRepository.findActiveByEmail(email);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<LoginCredentials> getActiveLoginCredentialsByEmail(String email) {
+        return userRepository.findActiveLoginCredentialsByEmail(email);
+    }
+
+    @Override
+    @Transactional
+    public boolean replaceUserPasswordHash(Long userId, String currentHash, String newHash) {
+        return userRepository.replaceHashedPassword(userId, currentHash, newHash) > 0;
+    }
+
     @Override
     public Household saveHousehold(Household household) {
-        return householdRepository.save(household);
+        Household savedHousehold = householdRepository.save(household);
+        householdCache.evict(savedHousehold.getId());
+        return savedHousehold;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getHouseholdVersionTag(Long householdId) {
+        return householdRepository.findVersionTagById(householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getUserProfileVersionTag(Long userId) {
+        return userRepository.findProfileVersionTagById(userId);
     }
 
     @Override
-    public List<User> getActiveUsersByHouseholdId(Long householdId) {
-        return userRepository.findActiveByHouseholdId(householdId);
+    @Transactional(readOnly = true)
+    public String getPendingNonExpiredInvitationsVersionTagForUser(Long userId) {
+        return householdInvitationRepository.findPendingNonExpiredVersionTagByInvitedUser(userId, LocalDateTime.now());
     }
 
     @Override
-    public Optional<User> getActiveUserByIdAndHouseholdId(Long id, Long householdId) {
-        return userRepository.findActiveByIdAndHouseholdId(id, householdId);
+    @Transactional(readOnly = true)
+    public Optional<UserResponse> getUserResponseById(Long id) {
+        return userRepository.findResponseById(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> getActiveUserResponsesByHouseholdId(Long householdId) {
+        return userRepository.findActiveResponsesByHouseholdId(householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserResponse> getActiveUserResponseByIdAndHouseholdId(Long id, Long householdId) {
+        return userRepository.findActiveResponseByIdAndHouseholdId(id, householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> getActiveUserWithHousehold(Long id, Long householdId) {
+        return userRepository.findActiveByIdAndHouseholdIdWithHousehold(id, householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Household> getHouseholdWithActiveMembers(Long householdId) {
         return householdRepository.findByIdWithActiveMembers(householdId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Household> getHouseholdById(Long householdId) {
         return householdRepository.findById(householdId);
     }
 
     @Override
-    public HouseholdInvitation saveHouseholdInvitation(HouseholdInvitation invitation) {
-        return householdInvitationRepository.save(invitation);
+    @Transactional(readOnly = true)
+    public boolean householdExists(Long householdId) {
+        return householdRepository.existsById(householdId);
     }
 
     @Override
-    public Optional<HouseholdInvitation> findActiveInvitationByHouseholdAndUser(Long householdId, Long invitedUserId) {
-        return householdInvitationRepository.findActiveByHouseholdAndInvitedUser(householdId, invitedUserId,
-                InvitationStatus.PENDING);
+    public Optional<HouseholdInvitation> insertPendingInvitation(HouseholdInvitation invitation) {
+        try {
+            return Optional.of(householdInvitationRepository.saveAndFlush(invitation));
+        } catch (DataIntegrityViolationException e) {
+            if (violatesConstraint(e, HouseholdInvitation.PENDING_UNIQUE_INDEX)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean violatesConstraint(DataIntegrityViolationException e, String constraintName) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return constraintName.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
     }
 
     @Override
     @Transactional
-    public int expireOutdatedInvitations() {
-        LocalDateTime currentTime = LocalDateTime.now();
-        return householdInvitationRepository.updateExpiredInvitationsToExpired(
-                InvitationStatus.EXPIRED,
-                InvitationStatus.PENDING,
-                currentTime);
+    public List<ExpiredInvitation> expireOutdatedInvitations(int batchSize) {
+        return householdInvitationRepository.expirePendingInvitationsBatch(LocalDateTime.now(), batchSize).stream()
+                .map(row -> new ExpiredInvitation(((Number) row[0]).longValue(), ((Number) row[1]).longValue()))
+                .toList();
     }
 
     @Override
-    public List<HouseholdInvitation> getPendingNonExpiredInvitationsForUser(Long userId) {
+    @Transactional(readOnly = true)
+    public List<InvitationResponse> getPendingNonExpiredInvitationResponsesForUser(Long userId) {
         LocalDateTime currentTime = LocalDateTime.now();
-        return householdInvitationRepository.findPendingNonExpiredByInvitedUser(
+        return householdInvitationRepository.findPendingNonExpiredResponsesByInvitedUser(
                 userId,
                 InvitationStatus.PENDING,
                 currentTime);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvitationResponse> getInvitationResponsePage(Long invitedUserId, InvitationStatus status,
+            InvitationCursor after, int limit) {
+        return after == null
+                ? householdInvitationRepository.findResponsePageByInvitedUserAndStatus(invitedUserId, status, Limit.of(limit))
+                : householdInvitationRepository.findResponsePageByInvitedUserAndStatusAfter(
+                        invitedUserId, status, after.createdAt(), after.id(), Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInvitationResponses(Long invitedUserId, InvitationStatus status, Consumer<InvitationResponse> action) {
+        try (Stream<InvitationResponse> invitations =
+                     householdInvitationRepository.streamResponsesByInvitedUserAndStatus(invitedUserId, status)) {
+            invitations.forEach(action);
+        }
+    }
+
+    @Override
+    public BankAccount saveBankAccount(BankAccount account) {
+        return bankAccountRepository.save(account);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isActiveBankAccountInHousehold(Long accountId, Long householdId) {
+        return bankAccountRepository.existsActiveByIdAndHouseholdId(accountId, householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AccountOverviewResponse> getActiveAccountOverviewsByHouseholdId(Long householdId) {
+        return bankAccountRepository.findActiveOverviewsByHouseholdId(householdId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getBankAccountIdsAfter(Long afterId, int limit) {
+        return bankAccountRepository.findIdsAfter(afterId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional
+    public void recordAccountBalance(Long accountId, BigDecimal balanceAmount, LocalDate balanceDate) {
+        accountBalanceRepository.upsertBalance(accountId, balanceAmount, balanceDate);
+        accountBalanceRepository.upsertLatestBalance(accountId, balanceAmount, balanceDate);
+        accountBalanceRepository.refreshMonthlyBalances(accountId, balanceDate, balanceDate);
+    }
+
+    @Override
+    @Transactional
+    public BalanceImportResponse importAccountBalances(Long accountId, Reader reader, BalanceImportFormat format) {
+        return balanceCopyImporter.importBalances(accountId, reader, format);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BalanceResponse> getBalanceResponsePage(Long accountId, LocalDate afterBalanceDate, int limit) {
+        return afterBalanceDate == null
+                ? accountBalanceRepository.findResponsePageByAccountId(accountId, Limit.of(limit))
+                : accountBalanceRepository.findResponsePageByAccountIdAfter(accountId, afterBalanceDate, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamBalanceResponses(Long accountId, Consumer<BalanceResponse> action) {
+        try (Stream<BalanceResponse> balances = accountBalanceRepository.streamResponsesByAccountId(accountId)) {
+            balances.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BalanceResponse> getLatestBalanceResponseByAccountId(Long accountId) {
+        return accountBalanceRepository.findLatestResponseByAccountId(accountId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NetWorthPoint> getNetWorthPointsByHouseholdId(Long householdId, LocalDate from, LocalDate to,
+            NetWorthGranularity granularity) {
+        List<NetWorthRow> rows;
+        if (granularity == NetWorthGranularity.MONTH) {
+            // Month-end balances of whole months come from the rollups; a month cut by from or to
+            // is read from the history, so balances outside the range do not count
+            LocalDate fullFrom = from.getDayOfMonth() == 1 ? from : from.plusMonths(1).withDayOfMonth(1);
+            LocalDate fullTo = to.getDayOfMonth() == to.lengthOfMonth() ? to : to.withDayOfMonth(1).minusDays(1);
+            if (fullFrom.isAfter(fullTo)) {
+                fullFrom = to.plusDays(1);
+                fullTo = to;
+            }
+            rows = accountBalanceRepository.findMonthlyNetWorthPointsByHouseholdId(householdId, from, to, fullFrom, fullTo);
+        } else {
+            rows = accountBalanceRepository.findNetWorthPointsByHouseholdId(householdId, from, to, granularity.unit());
+        }
+        return rows.stream()
+                .map(row -> new NetWorthPoint(row.getBucketStart(), row.getNetWorth()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MonthlyBalanceResponse> getMonthlyBalancesByHouseholdId(Long householdId, YearMonth from, YearMonth to) {
+        return accountBalanceRepository.findMonthlyBalancesByHouseholdId(householdId, from.atDay(1), to.atDay(1)).stream()
+                .map(row -> new MonthlyBalanceResponse(
+                        row.getAccountId(),
+                        row.getAccountName(),
+                        YearMonth.from(row.getBalanceMonth()),
+                        row.getClosingBalance(),
+                        row.getClosingDate(),
+                        row.getMinBalance(),
+                        row.getMaxBalance(),
+                        row.getAverageBalance(),
+                        row.getBalanceCount()))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildMonthlyBalances(List<Long> accountIds, YearMonth from, YearMonth to) {
+        int written = 0;
+        for (Long accountId : accountIds) {
+            written += accountBalanceRepository.refreshMonthlyBalances(accountId, from.atDay(1), to.atDay(1));
+            accountBalanceRepository.deleteEmptyMonthlyBalances(accountId, from.atDay(1), to.atDay(1));
+        }
+        return written;
+    }
 }
@@ -0,0 +1,88 @@
+package org.example.axelnyman.main.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.ExpiredInvitation;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationStatusResponse;
+import org.example.axelnyman.main.domain.events.InvitationStatusChangedEvent;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks pending invitations past their expiry as expired, in batches of
+ * {@code invitations.expiry.batch-size} rows, every {@code invitations.expiry.sweep-interval}.
+ * Reads do not depend on it: they already filter on {@code expiresAt}. Each expired invitation is
+ * published as an {@link InvitationStatusChangedEvent} once its batch has committed.
+ */
+@Component
+public class InvitationExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(InvitationExpirySweeper.class);
+
+    private final IDataService dataService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final Timer sweepTimer;
+    private final DistributionSummary rowsPerSweep;
+
+    public InvitationExpirySweeper(IDataService dataService,
+                                   ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${invitations.expiry.batch-size:500}") int batchSize) {
+        this.dataService = dataService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+
+        this.sweepTimer = Timer.builder("invitations.expiry.sweep.duration")
+                .description("Time taken by one invitation expiry sweep")
+                .register(meterRegistry);
+        this.rowsPerSweep = DistributionSummary.builder("invitations.expiry.sweep.rows")
+                .description("Invitations marked expired per sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${invitations.expiry.sweep-interval:PT1M}",
+               fixedDelayString = "${invitations.expiry.sweep-interval:PT1M}")
+    public void scheduledSweep() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("Invitation expiry sweep failed", e);
+        }
+    }
+
+    /**
+     * Expires outdated invitations one batch per transaction until a batch comes back short.
+     * Returns the total number of invitations expired.
+     */
+    public int sweep() {
+        return sweepTimer.record(() -> {
+            int total = 0;
+            int updated;
+            do {
+                List<ExpiredInvitation> expired = dataService.expireOutdatedInvitations(batchSize);
+                expired.forEach(invitation -> eventPublisher.publishEvent(new InvitationStatusChangedEvent(
+                        invitation.invitedUserId(),
+                        new InvitationStatusResponse(invitation.id(), InvitationStatus.EXPIRED.name()))));
+                updated = expired.size();
+                total += updated;
+            } while (updated == batchSize);
+
+            rowsPerSweep.record(total);
+            if (total > 0) {
+                log.debug("Expired {} outdated invitations", total);
+            }
+            return total;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.axelnyman.main.infrastructure.scheduling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Recomputes the monthly balance rollups from the balance history, for accounts in batches of
+ * {@code balances.monthly-rollup.repair-batch-size} per transaction. Balance writes keep the
+ * rollups current on their own; this repairs rows written around them, e.g. by hand or by a
+ * restored backup. It runs on {@code balances.monthly-rollup.repair-cron} over the last
+ * {@code balances.monthly-rollup.repair-months} months, and on demand over any range through
+ * {@link #repair(YearMonth, YearMonth)}.
+ */
+@Component
+public class MonthlyBalanceRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyBalanceRepairJob.class);
+
+    private final IDataService dataService;
+    private final int batchSize;
+    private final int trailingMonths;
+
+    private final Timer repairTimer;
+    private final DistributionSummary monthsPerRepair;
+
+    public MonthlyBalanceRepairJob(IDataService dataService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${balances.monthly-rollup.repair-batch-size:100}") int batchSize,
+                                   @Value("${balances.monthly-rollup.repair-months:2}") int trailingMonths) {
+        this.dataService = dataService;
+        this.batchSize = batchSize;
+        this.trailingMonths = trailingMonths;
+
+        this.repairTimer = Timer.builder("balances.monthly-rollup.repair.duration")
+                .description("Time taken by one monthly balance rollup repair")
+                .register(meterRegistry);
+        this.monthsPerRepair = DistributionSummary.builder("balances.monthly-rollup.repair.rows")
+                .description("Account months recomputed per repair")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${balances.monthly-rollup.repair-cron:0 30 3 * * *}")
+    public void scheduledRepair() {
+        try {
+            YearMonth current = YearMonth.now();
+            repair(current.minusMonths(trailingMonths - 1L), current);
+        } catch (RuntimeException e) {
+            log.warn("Monthly balance rollup repair failed", e);
+        }
+    }
+
+    /**
+     * Recomputes the rollups of every account from {@code from} to {@code to}, one batch of
+     * accounts per transaction. Returns the number of account months written.
+     */
+    public int repair(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return repairTimer.record(() -> {
+            int total = 0;
+            Long afterId = 0L;
+            List<Long> accountIds;
+            do {
+                accountIds = dataService.getBankAccountIdsAfter(afterId, batchSize);
+                if (!accountIds.isEmpty()) {
+                    total += dataService.rebuildMonthlyBalances(accountIds, from, to);
+                    afterId = accountIds.get(accountIds.size() - 1);
+                }
+            } while (accountIds.size() == batchSize);
+
+            monthsPerRepair.record(total);
+            log.debug("Recomputed {} account months from {} to {}", total, from, to);
+            return total;
+        });
+    }
+}
@@ -31,27 +31,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             
-            if (jwtTokenProvider.validateToken(token)) {
-                try {
-                    String userId = jwtTokenProvider.getUserIdFromToken(token);
-                    String householdId = jwtTokenProvider.getHouseholdIdFromToken(token);
-                    String email = jwtTokenProvider.getEmailFromToken(token);
-                    
-                    UserPrincipal userPrincipal = new UserPrincipal(
-                        Long.parseLong(userId),
-                        Long.parseLong(householdId),
-                        email,
-                        null
-                    );
-                    
-                    UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } catch (Exception e) {
-                    SecurityContextHolder.clearContext();
-                }
-            }
+            jwtTokenProvider.parseToken(token).ifPresent(claims -> {
+                UserPrincipal userPrincipal = new UserPrincipal(
+                    claims.userId(),
+                    claims.householdId(),
+                    claims.email(),
+                    null
+                );
+
+                UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
+
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            });
         }
         
         filterChain.doFilter(request, response);
@@ -0,0 +1,227 @@
+package org.example.axelnyman.main.infrastructure.security;
+
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Encoder and decoder for the fixed access-token claim set
+ * ({@code userId}, {@code householdId}, {@code email}, {@code iat}, {@code exp}).
+ * Tokens are written field by field without claim maps or a JSON library, in
+ * exactly the layout jjwt produces, so both sides can read each other's tokens.
+ * Signing uses one pre-initialised {@link Mac} per thread.
+ */
+final class JwtCodec {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final String encodedHeader;
+    private final ThreadLocal<Mac> macs;
+
+    JwtCodec(SecretKey secretKey) {
+        String jwtAlgorithm = switch (secretKey.getAlgorithm()) {
+            case "HmacSHA256" -> "HS256";
+            case "HmacSHA384" -> "HS384";
+            case "HmacSHA512" -> "HS512";
+            default -> throw new IllegalArgumentException("Unsupported key algorithm: " + secretKey.getAlgorithm());
+        };
+        this.encodedHeader = base64Url("{\"alg\":\"" + jwtAlgorithm + "\"}");
+        this.macs = ThreadLocal.withInitial(() -> newMac(secretKey));
+        // Fail fast on an unusable key instead of on the first request
+        macs.get();
+    }
+
+    String encode(Long userId, Long householdId, String email, long issuedAtSeconds, long expiresAtSeconds) {
+        StringBuilder payload = new StringBuilder(96 + email.length())
+                .append("{\"userId\":\"").append(userId)
+                .append("\",\"householdId\":\"").append(householdId)
+                .append("\",\"email\":\"");
+        appendEscaped(payload, email);
+        payload.append("\",\"iat\":").append(issuedAtSeconds)
+                .append(",\"exp\":").append(expiresAtSeconds)
+                .append('}');
+
+        String signingInput = encodedHeader + '.' + base64Url(payload.toString());
+        byte[] signature = macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + BASE64_URL.encodeToString(signature);
+    }
+
+    /**
+     * Verifies and decodes a token written in the fixed layout.
+     *
+     * @return the claims, or {@code null} if the token does not use this codec's
+     *         header or claim layout and must be handled by a general-purpose parser
+     * @throws SignatureException if the token uses this codec's header but the signature does not match
+     */
+    TokenClaims decode(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd != encodedHeader.length() || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0
+                || !token.startsWith(encodedHeader)) {
+            return null;
+        }
+
+        byte[] expected = macs.get().doFinal(token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII));
+        // Compared as text, since decoding ignores the unused low bits of the last character and would
+        // let several spellings of one signature verify
+        byte[] expectedText = BASE64_URL.encode(expected);
+        byte[] actualText = token.substring(payloadEnd + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expectedText, actualText)) {
+            throw new SignatureException("JWT signature does not match");
+        }
+
+        String payload;
+        try {
+            payload = new String(BASE64_URL_DECODER.decode(token.substring(headerEnd + 1, payloadEnd)),
+                    StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return new PayloadReader(payload).read();
+    }
+
+    private static Mac newMac(SecretKey secretKey) {
+        try {
+            Mac mac = Mac.getInstance(secretKey.getAlgorithm());
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + secretKey.getAlgorithm(), e);
+        }
+    }
+
+    private static String base64Url(String value) {
+        return BASE64_URL.encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendEscaped(StringBuilder target, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> target.append("\\\"");
+                case '\\' -> target.append("\\\\");
+                case '\n' -> target.append("\\n");
+                case '\r' -> target.append("\\r");
+                case '\t' -> target.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Strict reader for the payload layout written by {@link #encode}. Any deviation
+     * yields {@code null} so the caller can fall back to a general-purpose parser.
+     */
+    private static final class PayloadReader {
+
+        private final String json;
+        private int position;
+
+        private PayloadReader(String json) {
+            this.json = json;
+        }
+
+        private TokenClaims read() {
+            if (!expect("{\"userId\":")) return null;
+            String userId = readString();
+            if (userId == null || !expect(",\"householdId\":")) return null;
+            String householdId = readString();
+            if (householdId == null || !expect(",\"email\":")) return null;
+            String email = readString();
+            if (email == null || !expect(",\"iat\":")) return null;
+            long issuedAt = readLong();
+            if (issuedAt < 0 || !expect(",\"exp\":")) return null;
+            long expiresAt = readLong();
+            if (expiresAt < 0 || !expect("}") || position != json.length()) return null;
+
+            try {
+                return new TokenClaims(
+                        Long.parseLong(userId),
+                        Long.parseLong(householdId),
+                        email,
+                        Instant.ofEpochSecond(issuedAt),
+                        Instant.ofEpochSecond(expiresAt));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private boolean expect(String literal) {
+            if (!json.startsWith(literal, position)) {
+                return false;
+            }
+            position += literal.length();
+            return true;
+        }
+
+        private String readString() {
+            if (position >= json.length() || json.charAt(position) != '"') {
+                return null;
+            }
+            StringBuilder value = new StringBuilder();
+            for (int i = position + 1; i < json.length(); i++) {
+                char c = json.charAt(i);
+                if (c == '"') {
+                    position = i + 1;
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (++i >= json.length()) {
+                    return null;
+                }
+                switch (json.charAt(i)) {
+                    case '"' -> value.append('"');
+                    case '\\' -> value.append('\\');
+                    case '/' -> value.append('/');
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (i + 4 >= json.length()) {
+                            return null;
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+                        } catch (NumberFormatException e) {
+                            return null;
+                        }
+                        i += 4;
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private long readLong() {
+            int start = position;
+            while (position < json.length() && json.charAt(position) >= '0' && json.charAt(position) <= '9') {
+                position++;
+            }
+            if (start == position || position - start > 18) {
+                return -1;
+            }
+            return Long.parseLong(json, start, position, 10);
+        }
+    }
+}
@@ -1,71 +1,160 @@
 package org.example.axelnyman.main.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
 
-    private final SecretKey secretKey;
+    private static final long DEFAULT_CACHE_MAX_SIZE = 10_000;
+
     private final long jwtExpiration;
 
-    public JwtTokenProvider(@Value("${jwt.secret}") String secret, 
-                           @Value("${jwt.expiration}") long expiration) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+    // Both are immutable and thread-safe, so they are built once at startup
+    private final JwtParser jwtParser;
+    private final JwtCodec jwtCodec;
+
+    // Verified claims keyed by a SHA-256 digest of the token, so raw tokens are never retained
+    private final Cache<String, TokenClaims> verifiedTokens;
+
+    public JwtTokenProvider(String secret, long expiration) {
+        this(secret, expiration, DEFAULT_CACHE_MAX_SIZE);
+    }
+
+    @Autowired
+    public JwtTokenProvider(@Value("${jwt.secret}") String secret,
+                           @Value("${jwt.expiration}") long expiration,
+                           @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes());
         this.jwtExpiration = expiration;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.jwtCodec = new JwtCodec(secretKey);
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpireWithToken())
+                .build();
     }
 
     public String generateToken(Long userId, Long householdId, String email) {
-        Date now = new Date();
-        Date expiration = new Date(now.getTime() + jwtExpiration);
-
-        return Jwts.builder()
-                .claim("userId", userId.toString())
-                .claim("householdId", householdId.toString())
-                .claim("email", email)
-                .issuedAt(now)
-                .expiration(expiration)
-                .signWith(secretKey)
-                .compact();
+        long now = System.currentTimeMillis();
+        return jwtCodec.encode(userId, householdId, email, now / 1000, (now + jwtExpiration) / 1000);
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token signature and expiration once and returns its claims.
+     * Tokens that were already verified are served from a bounded cache until they expire.
+     *
+     * @return the verified claims, or empty if the token is malformed, tampered with or expired
+     */
+    public Optional<TokenClaims> parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String cacheKey = digest(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            return cached.isExpiredAt(Instant.now()) ? Optional.empty() : Optional.of(cached);
+        }
+
         try {
-            Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token);
-            return true;
+            Optional<TokenClaims> claims = verify(token);
+            if (claims.isEmpty() || claims.get().isExpiredAt(Instant.now())) {
+                return Optional.empty();
+            }
+            verifiedTokens.put(cacheKey, claims.get());
+            return claims;
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
+    }
+
     public String getUserIdFromToken(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("userId", String.class);
+        return requireClaims(token).userId().toString();
     }
 
     public String getHouseholdIdFromToken(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("householdId", String.class);
+        return requireClaims(token).householdId().toString();
     }
 
     public String getEmailFromToken(String token) {
-        Claims claims = extractClaims(token);
-        return claims.get("email", String.class);
+        return requireClaims(token).email();
     }
 
-    private Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private TokenClaims requireClaims(String token) {
+        return parseToken(token)
+                .orElseThrow(() -> new JwtException("Invalid or expired token"));
+    }
+
+    private Optional<TokenClaims> verify(String token) {
+        TokenClaims decoded = jwtCodec.decode(token);
+        if (decoded != null) {
+            return Optional.of(decoded);
+        }
+
+        // Tokens outside the fixed layout still get full verification
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        // jjwt accepts signed tokens without iat or exp, which we never issue
+        if (claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new TokenClaims(
+                Long.parseLong(claims.get("userId", String.class)),
+                Long.parseLong(claims.get("householdId", String.class)),
+                claims.get("email", String.class),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Evicts each cached entry at the moment its token expires.
+     */
+    private static final class ExpireWithToken implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
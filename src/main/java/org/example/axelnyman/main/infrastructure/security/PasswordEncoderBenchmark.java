@@ -0,0 +1,64 @@
+package org.example.axelnyman.main.infrastructure.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Reports how long one BCrypt hash takes at each cost on the machine the application
+ * runs on, to help choose {@code security.password-encoder.bcrypt-strength}.
+ * Enabled with {@code security.password-encoder.benchmark.enabled=true}; the results are logged once at startup.
+ */
+@Component
+@ConditionalOnProperty(name = "security.password-encoder.benchmark.enabled", havingValue = "true")
+public class PasswordEncoderBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoderBenchmark.class);
+    private static final String SAMPLE_PASSWORD = "benchmark-password-123";
+
+    private final int minCost;
+    private final int maxCost;
+    private final int samples;
+    private final int targetCost;
+
+    public PasswordEncoderBenchmark(@Value("${security.password-encoder.benchmark.min-cost:8}") int minCost,
+                                    @Value("${security.password-encoder.benchmark.max-cost:14}") int maxCost,
+                                    @Value("${security.password-encoder.benchmark.samples:5}") int samples,
+                                    @Value("${security.password-encoder.bcrypt-strength:10}") int targetCost) {
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+        this.samples = samples;
+        this.targetCost = targetCost;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        log.info("BCrypt hash time on this machine (median of {} samples):", samples);
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            double medianMillis = medianHashMillis(new BCryptPasswordEncoder(cost));
+            log.info("  cost {}: {} ms{}", cost, String.format("%.1f", medianMillis),
+                    cost == targetCost ? "  <- configured" : "");
+        }
+    }
+
+    private double medianHashMillis(BCryptPasswordEncoder encoder) {
+        // One unmeasured hash so class loading and JIT warm-up do not skew the first sample
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long[] durations = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        return durations[samples / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.axelnyman.main.infrastructure.security;
+
+import java.time.Instant;
+
+/**
+ * Verified, immutable view of the claims carried by an access token.
+ * Instances are only produced by {@link JwtTokenProvider} after the signature
+ * and expiration have been checked.
+ */
+public record TokenClaims(
+        Long userId,
+        Long householdId,
+        String email,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public boolean isExpiredAt(Instant instant) {
+        return !instant.isBefore(expiresAt);
+    }
+}
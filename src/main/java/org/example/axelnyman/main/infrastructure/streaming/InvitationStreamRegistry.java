@@ -0,0 +1,235 @@
+package org.example.axelnyman.main.infrastructure.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.axelnyman.main.domain.events.InvitationCreatedEvent;
+import org.example.axelnyman.main.domain.events.InvitationStatusChangedEvent;
+import org.example.axelnyman.main.infrastructure.cache.CacheInvalidationBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open {@code GET /api/users/me/invitations/stream} connections, keyed by user id. The streams
+ * are async requests: an idle stream holds a connection but no thread. Events are queued per
+ * connection, up to {@code invitations.stream.buffer-size}, and written by a small sender pool
+ * one connection at a time. A connection whose buffer overflows is closed rather than allowed to
+ * hold back the others; the client reconnects and re-reads the invitation list. Every connection
+ * gets a comment line each {@code invitations.stream.heartbeat-interval}, so proxies keep it open
+ * and dead connections are noticed.
+ * <p>
+ * Each event is pushed to this instance's streams and relayed to the other instances over the
+ * {@link CacheInvalidationBus} on the {@code invitation_events} channel, so it reaches the user
+ * whichever instance their stream is open on. Events sent while an instance's listener is
+ * reconnecting are lost to it; clients re-read the list when their stream closes.
+ */
+@Component
+public class InvitationStreamRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(InvitationStreamRegistry.class);
+
+    private static final String CREATED = "invitation-created";
+    private static final String STATUS_CHANGED = "invitation-status-changed";
+    static final String RELAY_CHANNEL = "invitation_events";
+
+    private final ConcurrentHashMap<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final long timeoutMillis;
+    private final int bufferSize;
+
+    private final Counter overflowCounter;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus relay;
+    private final ObjectMapper objectMapper;
+
+    public InvitationStreamRegistry(MeterRegistry meterRegistry,
+                                    CacheInvalidationBus relay,
+                                    ObjectMapper objectMapper,
+                                    @Value("${invitations.stream.timeout:PT30M}") Duration timeout,
+                                    @Value("${invitations.stream.buffer-size:32}") int bufferSize,
+                                    @Value("${invitations.stream.sender-threads:4}") int senderThreads) {
+        this.meterRegistry = meterRegistry;
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Unbounded queue, but at most one task per connection is ever queued (see Connection.draining)
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "invitation-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("invitations.stream.connections", connectionCount, AtomicInteger::get)
+                .description("Open invitation event streams")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("invitations.stream.overflows")
+                .description("Invitation streams closed because the client did not keep up")
+                .register(meterRegistry);
+        relay.subscribe(RELAY_CHANNEL, this::onRelayedEvent);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> {
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(error -> remove(connection));
+
+        connectionsByUser.compute(userId, (id, connections) -> {
+            Set<Connection> updated = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            updated.add(connection);
+            return updated;
+        });
+        connectionCount.incrementAndGet();
+        // Commits the response headers right away, so the client knows the stream is open
+        enqueue(connection, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvitationCreated(InvitationCreatedEvent event) {
+        publish(event.invitedUserId(), CREATED, event.invitation().id(), event.invitation());
+        relay(event.invitedUserId(), CREATED, event.invitation().id(), event.invitation());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvitationStatusChanged(InvitationStatusChangedEvent event) {
+        publish(event.invitedUserId(), STATUS_CHANGED, event.invitation().id(), event.invitation());
+        relay(event.invitedUserId(), STATUS_CHANGED, event.invitation().id(), event.invitation());
+    }
+
+    @Scheduled(initialDelayString = "${invitations.stream.heartbeat-interval:PT15S}",
+               fixedDelayString = "${invitations.stream.heartbeat-interval:PT15S}")
+    public void sendHeartbeats() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        connectionsByUser.values().forEach(connections -> connections.forEach(
+                connection -> enqueue(connection, heartbeat)));
+    }
+
+    private void relay(Long userId, String name, Long id, Object data) {
+        try {
+            relay.send(RELAY_CHANNEL, objectMapper.writeValueAsString(
+                    new RelayedEvent(userId, name, id, objectMapper.valueToTree(data))));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Could not relay {} {} to other instances", name, id, e);
+        }
+    }
+
+    private void onRelayedEvent(String message) {
+        try {
+            RelayedEvent event = objectMapper.readValue(message, RelayedEvent.class);
+            publish(event.userId(), event.name(), event.id(), event.data());
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed relayed invitation event", e);
+        }
+    }
+
+    private void publish(Long userId, String name, Long id, Object data) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) {
+            return;
+        }
+        Set<DataWithMediaType> event = SseEmitter.event()
+                .name(name)
+                .id(String.valueOf(id))
+                .data(data, MediaType.APPLICATION_JSON)
+                .build();
+        meterRegistry.counter("invitations.stream.events", "event", name).increment();
+        connections.forEach(connection -> enqueue(connection, event));
+    }
+
+    private void enqueue(Connection connection, Set<DataWithMediaType> event) {
+        if (!connection.buffer.offer(event)) {
+            overflowCounter.increment();
+            remove(connection);
+            connection.emitter.complete();
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Set<DataWithMediaType> event;
+            while ((event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter completed; the container reports the rest
+            remove(connection);
+            connection.buffer.clear();
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before draining was cleared
+        if (!connection.buffer.isEmpty() && connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void remove(Connection connection) {
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            if (connections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionsByUser.values().forEach(connections -> connections.forEach(
+                connection -> connection.emitter.complete()));
+        sender.shutdown();
+    }
+
+    record RelayedEvent(Long userId, String name, Long id, JsonNode data) {
+    }
+
+    private static final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        // Set while a sender task owns this connection, so its events are written in order
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Connection(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
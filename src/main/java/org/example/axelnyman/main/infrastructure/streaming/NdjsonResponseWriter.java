@@ -0,0 +1,77 @@
+package org.example.axelnyman.main.infrastructure.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows to a response as NDJSON, one JSON object per line, while a producer reads them.
+ * Each row is serialized on its own into a fixed-size buffer, so the heap holds no more rows than
+ * the producer has in hand, e.g. one database fetch. Nothing is sent before the first row, so a
+ * producer that fails its checks before reading still gets a regular error response.
+ */
+@Component
+public class NdjsonResponseWriter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final ObjectWriter objectWriter;
+
+    public NdjsonResponseWriter(ObjectMapper objectMapper) {
+        this.objectWriter = objectMapper.writer();
+    }
+
+    /** Runs {@code producer} with a consumer that writes each row it is given as one line. */
+    public <T> void write(HttpServletResponse response, Consumer<Consumer<T>> producer) throws IOException {
+        Lines<T> lines = new Lines<>(response);
+        try {
+            producer.accept(lines);
+        } catch (UncheckedIOException e) {
+            // Usually the client going away; the producer's transaction has already ended
+            throw e.getCause();
+        }
+        lines.finish();
+    }
+
+    private final class Lines<T> implements Consumer<T> {
+
+        private final HttpServletResponse response;
+        private OutputStream out;
+
+        private Lines(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void accept(T row) {
+            try {
+                open().write(objectWriter.writeValueAsBytes(row));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private OutputStream open() throws IOException {
+            if (out == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+            }
+            return out;
+        }
+
+        private void finish() throws IOException {
+            open().flush();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.axelnyman.main.shared.exceptions;
+
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.axelnyman.main.shared.exceptions;
+
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.axelnyman.main.shared.exceptions;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
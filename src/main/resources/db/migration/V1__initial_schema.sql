@@ -0,0 +1,74 @@
+-- Schema as previously generated by Hibernate from the entity mappings
+
+CREATE TABLE households (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name      VARCHAR(255) NOT NULL,
+    last_name       VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    hashed_password VARCHAR(255) NOT NULL,
+    household_id    BIGINT,
+    deleted_at      TIMESTAMP(6),
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_household FOREIGN KEY (household_id) REFERENCES households (id)
+);
+
+CREATE TABLE household_invitations (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    household_id       BIGINT       NOT NULL,
+    invited_user_id    BIGINT       NOT NULL,
+    invited_by_user_id BIGINT       NOT NULL,
+    token              VARCHAR(255) NOT NULL,
+    status             VARCHAR(255) NOT NULL,
+    expires_at         TIMESTAMP(6) NOT NULL,
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_household_invitations_token UNIQUE (token),
+    CONSTRAINT uk_household_invitations_household_user_status UNIQUE (household_id, invited_user_id, status),
+    CONSTRAINT ck_household_invitations_status CHECK (status IN ('PENDING', 'ACCEPTED', 'DECLINED', 'EXPIRED')),
+    CONSTRAINT fk_household_invitations_household FOREIGN KEY (household_id) REFERENCES households (id),
+    CONSTRAINT fk_household_invitations_invited_user FOREIGN KEY (invited_user_id) REFERENCES users (id),
+    CONSTRAINT fk_household_invitations_invited_by_user FOREIGN KEY (invited_by_user_id) REFERENCES users (id)
+);
+
+CREATE TABLE bank_accounts (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_name VARCHAR(255) NOT NULL,
+    is_active    BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE user_bank_accounts (
+    bank_account_id BIGINT NOT NULL,
+    user_id         BIGINT NOT NULL,
+    PRIMARY KEY (bank_account_id, user_id),
+    CONSTRAINT fk_user_bank_accounts_bank_account FOREIGN KEY (bank_account_id) REFERENCES bank_accounts (id),
+    CONSTRAINT fk_user_bank_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE account_balances (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id     BIGINT         NOT NULL,
+    balance_amount NUMERIC(15, 2) NOT NULL,
+    balance_date   DATE           NOT NULL,
+    created_at     TIMESTAMP(6),
+    CONSTRAINT fk_account_balances_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id)
+);
+
+CREATE TABLE monthly_budgets (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    budget_name VARCHAR(255) NOT NULL,
+    month       INTEGER      NOT NULL,
+    year        INTEGER      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6) NOT NULL
+);
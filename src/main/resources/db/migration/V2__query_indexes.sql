@@ -0,0 +1,24 @@
+-- Indexes for the repository queries in UserRepository and HouseholdInvitationRepository.
+-- Lookups by email are served by uk_users_email; lookups by id by the primary keys.
+
+-- Active members of a household (findActiveByHouseholdId, household details)
+CREATE INDEX idx_users_household_active ON users (household_id) WHERE deleted_at IS NULL;
+
+-- Invitations received by a user, filtered by status and expiry and listed newest first
+CREATE INDEX idx_household_invitations_invited_user
+    ON household_invitations (invited_user_id, status, expires_at, created_at);
+
+-- Outdated pending invitations picked up by the expiry sweep
+CREATE INDEX idx_household_invitations_pending_expiry
+    ON household_invitations (expires_at) WHERE status = 'PENDING';
+
+-- Only pending invitations need to be unique per household and user. The previous constraint
+-- also covered expired, declined and accepted rows, so a second invitation that later expired
+-- could never be marked expired.
+ALTER TABLE household_invitations DROP CONSTRAINT uk_household_invitations_household_user_status;
+CREATE UNIQUE INDEX uk_household_invitations_pending
+    ON household_invitations (household_id, invited_user_id) WHERE status = 'PENDING';
+
+-- Foreign keys referenced when households and users are deleted
+CREATE INDEX idx_household_invitations_household ON household_invitations (household_id);
+CREATE INDEX idx_household_invitations_invited_by_user ON household_invitations (invited_by_user_id);
@@ -0,0 +1,33 @@
+-- Sequence-generated ids with blocks of 50, so Hibernate can assign ids without a round trip
+-- per insert and batch the inserts. Each sequence also becomes the column default, keeping plain
+-- SQL inserts working; such an insert takes a whole block, so it never collides with Hibernate.
+
+ALTER TABLE households ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE households_seq INCREMENT BY 50 OWNED BY households.id;
+SELECT setval('households_seq', COALESCE(MAX(id), 0) + 50, false) FROM households;
+ALTER TABLE households ALTER COLUMN id SET DEFAULT nextval('households_seq');
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE household_invitations ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE household_invitations_seq INCREMENT BY 50 OWNED BY household_invitations.id;
+SELECT setval('household_invitations_seq', COALESCE(MAX(id), 0) + 50, false) FROM household_invitations;
+ALTER TABLE household_invitations ALTER COLUMN id SET DEFAULT nextval('household_invitations_seq');
+
+ALTER TABLE bank_accounts ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE bank_accounts_seq INCREMENT BY 50 OWNED BY bank_accounts.id;
+SELECT setval('bank_accounts_seq', COALESCE(MAX(id), 0) + 50, false) FROM bank_accounts;
+ALTER TABLE bank_accounts ALTER COLUMN id SET DEFAULT nextval('bank_accounts_seq');
+
+ALTER TABLE account_balances ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE account_balances_seq INCREMENT BY 50 OWNED BY account_balances.id;
+SELECT setval('account_balances_seq', COALESCE(MAX(id), 0) + 50, false) FROM account_balances;
+ALTER TABLE account_balances ALTER COLUMN id SET DEFAULT nextval('account_balances_seq');
+
+ALTER TABLE monthly_budgets ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE monthly_budgets_seq INCREMENT BY 50 OWNED BY monthly_budgets.id;
+SELECT setval('monthly_budgets_seq', COALESCE(MAX(id), 0) + 50, false) FROM monthly_budgets;
+ALTER TABLE monthly_budgets ALTER COLUMN id SET DEFAULT nextval('monthly_budgets_seq');
@@ -0,0 +1,6 @@
+-- Optimistic-locking versions, incremented by Hibernate on every update. Together with the ids
+-- they identify a representation, so the API derives ETags from them.
+
+ALTER TABLE households ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE household_invitations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- One balance per account and day. Recording a balance for a day that already has one replaces
+-- it, so duplicates left from before are reduced to the most recently inserted row.
+DELETE FROM account_balances b
+    USING account_balances newer
+    WHERE newer.account_id = b.account_id
+      AND newer.balance_date = b.balance_date
+      AND newer.id > b.id;
+CREATE UNIQUE INDEX uk_account_balances_account_date ON account_balances (account_id, balance_date);
+
+-- Latest balance per account, updated in the same transaction as every balance insert, so the
+-- current balances of a household read one row per account however long the history is
+CREATE TABLE account_latest_balances (
+    account_id     BIGINT         PRIMARY KEY,
+    balance_amount NUMERIC(15, 2) NOT NULL,
+    balance_date   DATE           NOT NULL,
+    updated_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT fk_account_latest_balances_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id)
+);
+
+INSERT INTO account_latest_balances (account_id, balance_amount, balance_date, updated_at)
+SELECT DISTINCT ON (account_id) account_id, balance_amount, balance_date, now()
+FROM account_balances
+ORDER BY account_id, balance_date DESC;
+
+-- Accounts of the members of a household; the primary key leads with bank_account_id
+CREATE INDEX idx_user_bank_accounts_user ON user_bank_accounts (user_id);
@@ -0,0 +1,7 @@
+-- Balance histories are read per account in date order with their amounts (the household net
+-- worth series). Carrying the amount in the unique index lets those reads come from the index
+-- alone, already sorted, instead of visiting the table for every day.
+CREATE UNIQUE INDEX uk_account_balances_account_date_amount
+    ON account_balances (account_id, balance_date) INCLUDE (balance_amount);
+DROP INDEX uk_account_balances_account_date;
+ALTER INDEX uk_account_balances_account_date_amount RENAME TO uk_account_balances_account_date;
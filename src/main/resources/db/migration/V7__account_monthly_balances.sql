@@ -0,0 +1,31 @@
+-- Month-end figures per account, recomputed for the affected months in the same transaction as
+-- every balance write, so monthly reports read one row per account and month however many
+-- balances were recorded. balance_month is the first day of the month. A repair job recomputes
+-- them from account_balances for any range of months.
+CREATE TABLE account_monthly_balances (
+    account_id      BIGINT         NOT NULL,
+    balance_month   DATE           NOT NULL,
+    closing_balance NUMERIC(15, 2) NOT NULL,
+    closing_date    DATE           NOT NULL,
+    min_balance     NUMERIC(15, 2) NOT NULL,
+    max_balance     NUMERIC(15, 2) NOT NULL,
+    balance_sum     NUMERIC(20, 2) NOT NULL,
+    balance_count   INTEGER        NOT NULL,
+    updated_at      TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_account_monthly_balances PRIMARY KEY (account_id, balance_month),
+    CONSTRAINT fk_account_monthly_balances_account FOREIGN KEY (account_id) REFERENCES bank_accounts (id)
+);
+
+INSERT INTO account_monthly_balances (account_id, balance_month, closing_balance, closing_date,
+                                      min_balance, max_balance, balance_sum, balance_count, updated_at)
+SELECT account_id,
+       CAST(date_trunc('month', CAST(balance_date AS timestamp)) AS date) AS balance_month,
+       (array_agg(balance_amount ORDER BY balance_date DESC))[1],
+       MAX(balance_date),
+       MIN(balance_amount),
+       MAX(balance_amount),
+       SUM(balance_amount),
+       COUNT(*),
+       now()
+FROM account_balances
+GROUP BY account_id, balance_month;
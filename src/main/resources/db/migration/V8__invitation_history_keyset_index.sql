@@ -0,0 +1,5 @@
+-- Invitation history pages are read newest first with a (created_at, id) keyset cursor. Scanning
+-- this index backwards returns them in that order, starting right after the cursor, without
+-- sorting or skipping earlier pages.
+CREATE INDEX idx_household_invitations_invited_user_created
+    ON household_invitations (invited_user_id, status, created_at, id);
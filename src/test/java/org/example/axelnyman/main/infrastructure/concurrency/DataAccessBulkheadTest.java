@@ -0,0 +1,117 @@
+package org.example.axelnyman.main.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.shared.exceptions.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataAccessBulkheadTest {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private IDataService dataService;
+    private Runnable onCall = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One permit, given up after 100 ms of waiting
+        DataAccessBulkhead bulkhead = new DataAccessBulkhead(
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class),
+                1, Duration.ofMillis(100), 3);
+        bulkhead.afterSingletonsInstantiated();
+        IDataService target = (IDataService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { IDataService.class }, (proxy, method, args) -> {
+                    onCall.run();
+                    return false;
+                });
+        dataService = (IDataService) bulkhead.postProcessAfterInitialization(target, "dataService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void call_WhenPermitsAreInUse_ShouldFailWithServiceOverloaded() throws Exception {
+        // Arrange: another thread holds the only permit
+        onCall = () -> {
+            entered.countDown();
+            await(release);
+        };
+        CompletableFuture<Boolean> holder = CompletableFuture.supplyAsync(
+                () -> dataService.userExistsByEmailIncludingDeleted("held@example.com"));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        ServiceOverloadedException exception = assertThrows(ServiceOverloadedException.class,
+                () -> dataService.userExistsByEmailIncludingDeleted("waiting@example.com"));
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("data.access.bulkhead.rejected").counter().count());
+
+        // Act & Assert: the permit is free again once the holder returns
+        release.countDown();
+        assertFalse(holder.get(5, TimeUnit.SECONDS));
+        onCall = () -> { };
+        assertFalse(dataService.userExistsByEmailIncludingDeleted("waiting@example.com"));
+        assertEquals(1.0, meterRegistry.get("data.access.bulkhead.available").gauge().value());
+    }
+
+    @Test
+    void call_FromWithinDataAccess_ShouldNotTakeAnotherPermit() {
+        // Arrange
+        onCall = () -> {
+            onCall = () -> { };
+            dataService.userExistsByEmailIncludingDeleted("nested@example.com");
+        };
+
+        // Act & Assert
+        assertFalse(dataService.userExistsByEmailIncludingDeleted("outer@example.com"));
+        assertEquals(1.0, meterRegistry.get("data.access.bulkhead.available").gauge().value());
+    }
+
+    @Test
+    void call_InsideTransaction_ShouldHoldPermitUntilTransactionCompletes() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        dataService.userExistsByEmailIncludingDeleted("first@example.com");
+        dataService.userExistsByEmailIncludingDeleted("second@example.com");
+
+        // Assert: both calls share the transaction's permit, released with the transaction
+        assertEquals(0.0, meterRegistry.get("data.access.bulkhead.available").gauge().value());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(1.0, meterRegistry.get("data.access.bulkhead.available").gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.axelnyman.main.infrastructure.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.axelnyman.main.MainApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the servlet container on platform threads (Tomcat's pool of 200) with virtual threads
+ * ({@code spring.threads.virtual.enabled=true}). Each operation sends {@code connections}
+ * concurrent {@code GET /api/users/me} requests over HTTP, each of which blocks on JDBC, and waits
+ * for all of them. Request latency percentiles, failed requests and the peak number of live
+ * platform threads are printed after each iteration.
+ * Run with {@code ./mvnw -Pbenchmark,java21 test -Dbenchmark.include=ExecutionModeLoadBenchmark}
+ * on a Java 21+ JDK; it starts a PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus
+ * username and password) is set. 10k connections may need a higher open file limit
+ * ({@code ulimit -n}).
+ * <p>
+ * Recorded on a single-core sandbox with JDK 17 and a local PostgreSQL, with 1 warmup and 3
+ * measured iterations. Client and server share the JVM, so peak threads include the client's.
+ * <pre>
+ * threads   connections  avg/op     p50 (last iterations)  p99          failed  peak platform threads
+ * platform  1000         7.7 s      4.2-4.9 s              6.0-7.6 s    0       408-466
+ * platform  10000        40.4 s     22.0-25.0 s            32.2-36.0 s  0       1020-1831
+ * </pre>
+ * At 10k connections, 1103 requests failed during the warmup iteration. The virtual-thread side
+ * has not been run: the only JDK available there was 17, no Java 21 build could be downloaded, and
+ * {@code setUp} refuses virtual mode below 21. The two modes remain uncompared until it is run on
+ * Java 21+.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutionModeLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1000", "10000"})
+    public int connections;
+
+    private final ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+    private final AtomicLong failures = new AtomicLong();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest profileRequest;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() throws Exception {
+        if ("virtual".equals(threads) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on " + Runtime.version());
+        }
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "--server.port=0",
+                        "--scheduling.enabled=false",
+                        "--cache.invalidation.enabled=false",
+                        "--logging.level.root=WARN");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        String email = "load-" + System.currentTimeMillis() + "@benchmark.example.com";
+        HttpResponse<String> registered = client.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/auth/register"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                                "firstName", "Load",
+                                "lastName", "Test",
+                                "email", email,
+                                "password", "password123"))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        String token = objectMapper.readTree(registered.body()).get("token").asText();
+        profileRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/api/users/me"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        latenciesMicros.clear();
+        failures.set(0);
+        threadBean.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("%n%s threads, %d connections: p50 %.1f ms, p99 %.1f ms, %d failed, %d peak platform threads%n",
+                threads, connections, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                failures.get(), threadBean.getPeakThreadCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public void concurrentProfileReads() {
+        List<CompletableFuture<Void>> requests = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            long startedAt = System.nanoTime();
+            requests.add(client.sendAsync(profileRequest, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        latenciesMicros.add((System.nanoTime() - startedAt) / 1_000);
+                        if (error != null || response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1_000.0;
+    }
+}
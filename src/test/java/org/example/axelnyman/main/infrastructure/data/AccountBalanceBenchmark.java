@@ -0,0 +1,140 @@
+package org.example.axelnyman.main.infrastructure.data;
+
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.AccountOverviewResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the current balances of a household with {@code accounts} accounts, each with
+ * {@code years} of daily balances: once from the latest-balance rows behind
+ * {@code GET /api/accounts}, and once by aggregating the history for each account's newest
+ * {@code balance_date}. Also measures recording a balance, which upserts both the history and the
+ * latest row.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=AccountBalanceBenchmark}; it starts a
+ * PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and password) is set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountBalanceBenchmark {
+
+    private static final String CURRENT_BALANCES_FROM_HISTORY =
+            "SELECT a.id, a.account_name, b.balance_amount, b.balance_date " +
+            "FROM bank_accounts a " +
+            "LEFT JOIN (SELECT account_id, MAX(balance_date) AS balance_date FROM account_balances " +
+            "GROUP BY account_id) latest ON latest.account_id = a.id " +
+            "LEFT JOIN account_balances b ON b.account_id = a.id AND b.balance_date = latest.balance_date " +
+            "WHERE a.is_active AND a.id IN (SELECT uba.bank_account_id FROM user_bank_accounts uba " +
+            "JOIN users u ON u.id = uba.user_id WHERE u.household_id = ? AND u.deleted_at IS NULL) " +
+            "ORDER BY a.account_name, a.id";
+
+    @Param({"50"})
+    public int accounts;
+
+    @Param({"10"})
+    public int years;
+
+    private final AtomicLong recordings = new AtomicLong();
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private IDataService dataService;
+    private JdbcTemplate jdbcTemplate;
+    private Long householdId;
+    private List<Long> accountIds;
+    private LocalDate today;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--scheduling.enabled=false",
+                        "--logging.level.root=WARN");
+        dataService = context.getBean(IDataService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        seed();
+    }
+
+    // A household with one member who owns every account; balances for each day up to today
+    private void seed() {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        today = LocalDate.now();
+        householdId = jdbcTemplate.queryForObject("INSERT INTO households (name, created_at, updated_at) " +
+                "VALUES ('Benchmark household', now(), now()) RETURNING id", Long.class);
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (first_name, last_name, email, hashed_password, " +
+                "household_id, created_at, updated_at) VALUES ('Bench', 'Mark', ?, 'hash', ?, now(), now()) RETURNING id",
+                Long.class, "balances." + runId + "@benchmark.example.com", householdId);
+        accountIds = jdbcTemplate.queryForList("INSERT INTO bank_accounts (account_name, is_active, created_at, updated_at) " +
+                "SELECT 'Account ' || g, true, now(), now() FROM generate_series(1, ?) g RETURNING id",
+                Long.class, accounts);
+        int days = (int) ChronoUnit.DAYS.between(today.minusYears(years), today);
+        for (Long accountId : accountIds) {
+            jdbcTemplate.update("INSERT INTO user_bank_accounts (bank_account_id, user_id) VALUES (?, ?)", accountId, userId);
+            jdbcTemplate.update("INSERT INTO account_balances (account_id, balance_amount, balance_date, created_at) " +
+                    "SELECT ?, 1000 + d, ?::date - d, now() FROM generate_series(0, ? - 1) d",
+                    accountId, today, days);
+            jdbcTemplate.update("INSERT INTO account_latest_balances (account_id, balance_amount, balance_date, updated_at) " +
+                    "VALUES (?, 1000, ?, now())", accountId, today);
+        }
+        jdbcTemplate.execute("ANALYZE bank_accounts, user_bank_accounts, account_balances, account_latest_balances");
+        System.out.printf("%nSeeded %d accounts with %d balances each%n", accountIds.size(), days);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public List<AccountOverviewResponse> currentBalancesFromLatestTable() {
+        return dataService.getActiveAccountOverviewsByHouseholdId(householdId);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> currentBalancesFromHistory() {
+        return jdbcTemplate.queryForList(CURRENT_BALANCES_FROM_HISTORY, householdId);
+    }
+
+    @Benchmark
+    public void recordBalance() {
+        // Each call records the next day for the next account, so the latest row always moves forward
+        long n = recordings.incrementAndGet();
+        Long accountId = accountIds.get((int) (n % accountIds.size()));
+        dataService.recordAccountBalance(accountId, BigDecimal.valueOf(n, 2), today.plusDays(1 + n / accountIds.size()));
+    }
+}
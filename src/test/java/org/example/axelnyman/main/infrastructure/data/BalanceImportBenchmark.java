@@ -0,0 +1,97 @@
+package org.example.axelnyman.main.infrastructure.data;
+
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportFormat;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.BalanceImportResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures importing {@code rows} daily balances into one account: streamed through {@code COPY}
+ * and merged with one upsert, as {@code POST /api/accounts/{id}/balances/import} does, against
+ * recording them one at a time. Each invocation rewrites the same days, so both paths upsert.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=BalanceImportBenchmark}; it starts a
+ * PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and password) is set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BalanceImportBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private IDataService dataService;
+    private Long accountId;
+    private LocalDate firstDay;
+    private String csv;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--scheduling.enabled=false",
+                        "--logging.level.root=WARN");
+        dataService = context.getBean(IDataService.class);
+        accountId = context.getBean(JdbcTemplate.class).queryForObject("INSERT INTO bank_accounts " +
+                "(account_name, is_active, created_at, updated_at) VALUES ('Import benchmark', true, now(), now()) " +
+                "RETURNING id", Long.class);
+
+        firstDay = LocalDate.now().minusDays(rows);
+        StringBuilder body = new StringBuilder("balanceDate,balanceAmount\n");
+        for (int i = 0; i < rows; i++) {
+            body.append(firstDay.plusDays(i)).append(',').append(1000 + i).append(".50\n");
+        }
+        csv = body.toString();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public BalanceImportResponse copyImport() {
+        return dataService.importAccountBalances(accountId, new StringReader(csv), BalanceImportFormat.CSV);
+    }
+
+    @Benchmark
+    public void recordOneByOne() {
+        for (int i = 0; i < rows; i++) {
+            dataService.recordAccountBalance(accountId, BigDecimal.valueOf(100050 + 100L * i, 2), firstDay.plusDays(i));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.axelnyman.main.infrastructure.data;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.model.AccountBalance;
+import org.example.axelnyman.main.domain.model.BankAccount;
+import org.example.axelnyman.main.domain.model.Household;
+import org.example.axelnyman.main.domain.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures bulk creates through JPA with JDBC batching off ({@code batchSize = 1}, one round trip per
+ * insert, as under {@code IDENTITY} keys) and on ({@code batchSize = 50}). Each operation registers
+ * {@code rows} households with their users, or imports {@code rows} balances, in one transaction.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=BulkInsertBenchmark}; it starts a
+ * PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and password) is set.
+ * Database round trips per operation are printed after each iteration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final String HASHED_PASSWORD = "$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchma";
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"100"})
+    public int rows;
+
+    // Emails are unique per run so the benchmark can be repeated against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private BankAccount account;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new RoundTripCountingPostProcessor(roundTrips)))
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--scheduling.enabled=false",
+                        "--logging.level.root=WARN");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        account = transactionTemplate.execute(status -> {
+            BankAccount created = new BankAccount("Benchmark account");
+            entityManager.persist(created);
+            return created;
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        roundTrips.set(0);
+        operations.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportRoundTrips() {
+        System.out.printf("%n%.1f round trips/op (batch size %d, %d rows)%n",
+                (double) roundTrips.get() / Math.max(1, operations.get()), batchSize, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public void registerUsersWithHouseholds() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                long n = sequence.incrementAndGet();
+                Household household = new Household("Household " + n);
+                entityManager.persist(household);
+
+                User user = new User();
+                user.setFirstName("Bench");
+                user.setLastName("Mark");
+                user.setEmail("user" + n + "." + runId + "@benchmark.example.com");
+                user.setHashedPassword(HASHED_PASSWORD);
+                user.setHousehold(household);
+                entityManager.persist(user);
+            }
+        });
+        operations.incrementAndGet();
+    }
+
+    @Benchmark
+    public void importBalances() {
+        transactionTemplate.executeWithoutResult(status -> {
+            BankAccount managedAccount = entityManager.getReference(BankAccount.class, account.getId());
+            LocalDate start = LocalDate.of(2000, 1, 1);
+            for (int i = 0; i < rows; i++) {
+                long n = sequence.incrementAndGet();
+                entityManager.persist(new AccountBalance(managedAccount, BigDecimal.valueOf(n, 2), start.plusDays(n)));
+            }
+        });
+        operations.incrementAndGet();
+    }
+
+    /**
+     * Wraps the application's DataSource so every statement execution, single or batched, counts
+     * as one round trip to the database.
+     */
+    private record RoundTripCountingPostProcessor(AtomicLong roundTrips) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return countingConnection(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return countingConnection(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection countingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof Statement statement
+                                ? countingStatement(method.getReturnType(), statement)
+                                : result;
+                    });
+        }
+
+        private Object countingStatement(Class<?> statementType, Statement statement) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {statementType},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            roundTrips.incrementAndGet();
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.axelnyman.main.infrastructure.data;
+
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthGranularity;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthPoint;
+import org.example.axelnyman.main.infrastructure.data.context.AccountBalanceRepository;
+import org.example.axelnyman.main.infrastructure.data.context.AccountBalanceRepository.NetWorthRow;
+import org.example.axelnyman.main.infrastructure.scheduling.MonthlyBalanceRepairJob;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the net worth series of a household with {@code accounts} accounts, each with
+ * {@code years} of daily balances, over the whole period: as {@code GET /api/households/net-worth}
+ * computes it (monthly points from the monthly rollups), in one SQL statement over the balance
+ * history, and by loading every account's history and carrying balances forward in Java.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=NetWorthBenchmark}; it starts a
+ * PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and password) is set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetWorthBenchmark {
+
+    @Param({"20"})
+    public int accounts;
+
+    @Param({"10"})
+    public int years;
+
+    @Param({"DAY", "MONTH"})
+    public NetWorthGranularity granularity;
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private IDataService dataService;
+    private AccountBalanceRepository accountBalanceRepository;
+    private Long householdId;
+    private List<Long> accountIds;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--scheduling.enabled=false",
+                        "--logging.level.root=WARN");
+        dataService = context.getBean(IDataService.class);
+        accountBalanceRepository = context.getBean(AccountBalanceRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(MonthlyBalanceRepairJob.class).repair(YearMonth.from(from), YearMonth.from(to));
+        context.getBean(JdbcTemplate.class).execute("VACUUM ANALYZE account_monthly_balances");
+    }
+
+    // A household with one member who owns every account; balances for each day of the period
+    private void seed(JdbcTemplate jdbcTemplate) {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        to = LocalDate.now();
+        from = to.minusYears(years).plusDays(1);
+        householdId = jdbcTemplate.queryForObject("INSERT INTO households (name, created_at, updated_at) " +
+                "VALUES ('Benchmark household', now(), now()) RETURNING id", Long.class);
+        Long userId = jdbcTemplate.queryForObject("INSERT INTO users (first_name, last_name, email, hashed_password, " +
+                "household_id, created_at, updated_at) VALUES ('Bench', 'Mark', ?, 'hash', ?, now(), now()) RETURNING id",
+                Long.class, "net-worth." + runId + "@benchmark.example.com", householdId);
+        accountIds = jdbcTemplate.queryForList("INSERT INTO bank_accounts (account_name, is_active, created_at, updated_at) " +
+                "SELECT 'Account ' || g, true, now(), now() FROM generate_series(1, ?) g RETURNING id",
+                Long.class, accounts);
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        for (Long accountId : accountIds) {
+            jdbcTemplate.update("INSERT INTO user_bank_accounts (bank_account_id, user_id) VALUES (?, ?)", accountId, userId);
+            jdbcTemplate.update("INSERT INTO account_balances (account_id, balance_amount, balance_date, created_at) " +
+                    "SELECT ?, 1000 + d, ?::date - d, now() FROM generate_series(0, ? - 1) d",
+                    accountId, to, days);
+        }
+        // Sets the visibility map as autovacuum would, so balances are read from the index alone
+        jdbcTemplate.execute("VACUUM ANALYZE account_balances");
+        jdbcTemplate.execute("ANALYZE bank_accounts, user_bank_accounts");
+        System.out.printf("%nSeeded %d accounts with %d balances each%n", accountIds.size(), days);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public List<NetWorthPoint> netWorthEndpoint() {
+        return dataService.getNetWorthPointsByHouseholdId(householdId, from, to, granularity);
+    }
+
+    @Benchmark
+    public List<NetWorthRow> balanceHistoryInSql() {
+        return accountBalanceRepository.findNetWorthPointsByHouseholdId(householdId, from, to, granularity.unit());
+    }
+
+    @Benchmark
+    public TreeMap<LocalDate, BigDecimal> historiesInJava() {
+        // Every account's full history, each day's closing balance summed into its bucket
+        TreeMap<LocalDate, BigDecimal> netWorth = new TreeMap<>();
+        for (Long accountId : accountIds) {
+            TreeMap<LocalDate, BigDecimal> closing = new TreeMap<>();
+            dataService.streamBalanceResponses(accountId, balance -> {
+                LocalDate bucket = granularity == NetWorthGranularity.DAY
+                        ? balance.balanceDate()
+                        : balance.balanceDate().withDayOfMonth(1);
+                closing.putIfAbsent(bucket, balance.balanceAmount());
+            });
+            closing.forEach((bucket, amount) -> netWorth.merge(bucket, amount, BigDecimal::add));
+        }
+        return netWorth;
+    }
+}
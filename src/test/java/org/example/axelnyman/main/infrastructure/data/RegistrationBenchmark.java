@@ -0,0 +1,79 @@
+package org.example.axelnyman.main.infrastructure.data;
+
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IAuthService;
+import org.example.axelnyman.main.domain.dtos.UserDtos.AuthResponse;
+import org.example.axelnyman.main.domain.dtos.UserDtos.RegisterRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures signups per second with 8 clients registering distinct emails at once, each signup
+ * hashing the password and inserting the household and the user in one transaction, as
+ * {@code POST /api/auth/register} does.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=RegistrationBenchmark}; it starts a
+ * PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and password) is set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    // Emails are unique per run so the benchmark can be repeated against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private IAuthService authService;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--scheduling.enabled=false",
+                        "--cache.invalidation.enabled=false",
+                        "--logging.level.root=WARN");
+        authService = context.getBean(IAuthService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public AuthResponse registerDistinctEmails() {
+        long n = sequence.incrementAndGet();
+        return authService.registerUser(new RegisterRequest(
+                "Bench", "Mark", "signup" + n + "." + runId + "@benchmark.example.com", "password123")).join();
+    }
+}
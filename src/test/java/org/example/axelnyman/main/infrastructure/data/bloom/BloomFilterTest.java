@@ -0,0 +1,67 @@
+package org.example.axelnyman.main.infrastructure.data.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int VALUES = 100_000;
+
+    @Test
+    void mightContain_ShouldReturnTrueForEveryAddedValue() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Act & Assert
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"), "False negative for value " + i);
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = BloomFilter.create(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < VALUES; i++) {
+            if (filter.mightContain("absent" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        double observed = (double) falsePositives / VALUES;
+        assertTrue(observed < 0.015, "Observed false-positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.003);
+    }
+
+    @Test
+    void create_ShouldSizeBitArrayFromExpectedInsertions() {
+        // Act
+        BloomFilter filter = BloomFilter.create(1_000_000, 0.01);
+
+        // Assert: about 9.6 bits and 7 hash functions per value at 1%
+        assertEquals(7, filter.hashFunctions());
+        assertEquals(1_198_160, filter.memoryBytes(), 64);
+    }
+
+    @Test
+    void create_WithInvalidFalsePositiveRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(100, 1));
+    }
+
+    @Test
+    void normalize_ShouldIgnoreCaseAndSurroundingWhitespace() {
+        assertEquals("john.doe@example.com", RegisteredEmailFilter.normalize("  John.Doe@Example.COM "));
+    }
+}
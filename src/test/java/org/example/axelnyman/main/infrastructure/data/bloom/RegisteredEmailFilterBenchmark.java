@@ -0,0 +1,120 @@
+package org.example.axelnyman.main.infrastructure.data.bloom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the registration email check with the Bloom filter in front ({@code filter*}) against
+ * querying the users table every time ({@code query*}), for emails that are not registered (the
+ * common signup case) and emails that are. The users table is seeded with {@code users} rows.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=RegisteredEmailFilterBenchmark}; it
+ * starts a PostgreSQL container unless {@code -Dbenchmark.datasource.url} (plus username and
+ * password) is set. Seeding 10M users takes a few minutes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisteredEmailFilterBenchmark {
+
+    private static final String DOMAIN = "@filter.benchmark.example.com";
+    private static final int SEED_CHUNK = 1_000_000;
+
+    @Param({"1000000", "10000000"})
+    public int users;
+
+    private PostgreSQLContainer<?> container;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private IDataService dataService;
+
+    @Setup
+    @SuppressWarnings("resource")
+    public void setUp() {
+        String url = System.getProperty("benchmark.datasource.url");
+        String username = System.getProperty("benchmark.datasource.username", "postgres");
+        String password = System.getProperty("benchmark.datasource.password", "postgres");
+        if (url == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+            url = container.getJdbcUrl();
+            username = container.getUsername();
+            password = container.getPassword();
+        }
+
+        context = new SpringApplicationBuilder(MainApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--scheduling.enabled=false",
+                        "--logging.level.root=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userRepository = context.getBean(UserRepository.class);
+        dataService = context.getBean(IDataService.class);
+
+        for (int from = 0; from < users; from += SEED_CHUNK) {
+            jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, hashed_password, created_at, updated_at) " +
+                    "SELECT 'Bench', 'Mark', 'user' || g || ?, 'hash', now(), now() FROM generate_series(?, ?) g",
+                    DOMAIN, from, Math.min(users, from + SEED_CHUNK) - 1);
+        }
+        jdbcTemplate.execute("ANALYZE users");
+
+        context.getBean(RegisteredEmailFilter.class).rebuild();
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        System.out.printf("%nFilter for %d users: %d KiB, expected false-positive rate %.4f%n", users,
+                (long) meterRegistry.get("registration.email.filter.memory").gauge().value() / 1024,
+                meterRegistry.get("registration.email.filter.expected.fpp").gauge().value());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + DOMAIN);
+        context.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Benchmark
+    public boolean queryUnregisteredEmail() {
+        return userRepository.existsByEmailIncludingDeleted(unregisteredEmail());
+    }
+
+    @Benchmark
+    public boolean filterUnregisteredEmail() {
+        return dataService.userExistsByEmailIncludingDeleted(unregisteredEmail());
+    }
+
+    @Benchmark
+    public boolean queryRegisteredEmail() {
+        return userRepository.existsByEmailIncludingDeleted(registeredEmail());
+    }
+
+    @Benchmark
+    public boolean filterRegisteredEmail() {
+        return dataService.userExistsByEmailIncludingDeleted(registeredEmail());
+    }
+
+    private String unregisteredEmail() {
+        return "new" + ThreadLocalRandom.current().nextInt(users) + DOMAIN;
+    }
+
+    private String registeredEmail() {
+        return "user" + ThreadLocalRandom.current().nextInt(users) + DOMAIN;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.axelnyman.main.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original jjwt issue/parse path (new builder and parser per call)
+ * with the prebuilt parser and the fixed-claims codec used by {@link JwtTokenProvider}.
+ * Run with {@code ./mvnw -Pbenchmark test -Dbenchmark.include=JwtTokenProviderBenchmark};
+ * the gc profiler reports bytes allocated per operation as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "defaultSecretForDevelopmentOnlyThisShouldBeLongerThan32Characters";
+    private static final long EXPIRATION = 86_400_000;
+
+    private SecretKey secretKey;
+    private JwtParser prebuiltParser;
+    private JwtCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes());
+        prebuiltParser = Jwts.parser().verifyWith(secretKey).build();
+        codec = new JwtCodec(secretKey);
+        token = issueWithBuilder();
+    }
+
+    @Benchmark
+    public String issueWithBuilder() {
+        Date now = new Date();
+        return Jwts.builder()
+                .claim("userId", "42")
+                .claim("householdId", "7")
+                .claim("email", "benchmark@example.com")
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + EXPIRATION))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    @Benchmark
+    public String issueWithCodec() {
+        long now = System.currentTimeMillis();
+        return codec.encode(42L, 7L, "benchmark@example.com", now / 1000, (now + EXPIRATION) / 1000);
+    }
+
+    @Benchmark
+    public Claims parseWithParserPerCall() {
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims parseWithPrebuiltParser() {
+        return prebuiltParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public TokenClaims parseWithCodec() {
+        return codec.decode(token);
+    }
+}
@@ -1,8 +1,14 @@
 package org.example.axelnyman.main.infrastructure.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.SecretKey;
+import java.util.Date;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtTokenProviderTest {
@@ -161,4 +167,189 @@ class JwtTokenProviderTest {
         assertEquals(householdId.toString(), jwtTokenProvider.getHouseholdIdFromToken(token));
         assertEquals(email, jwtTokenProvider.getEmailFromToken(token));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseToken_WithValidToken_ShouldReturnTypedClaims() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(7L, 70L, "typed@example.com");
+
+        // Act
+        TokenClaims claims = jwtTokenProvider.parseToken(token).orElseThrow();
+
+        // Assert
+        assertEquals(7L, claims.userId());
+        assertEquals(70L, claims.householdId());
+        assertEquals("typed@example.com", claims.email());
+        assertTrue(claims.expiresAt().isAfter(claims.issuedAt()));
+    }
+
+    @Test
+    void parseToken_WithInvalidToken_ShouldReturnEmpty() {
+        assertTrue(jwtTokenProvider.parseToken("invalid.jwt.token").isEmpty());
+        assertTrue(jwtTokenProvider.parseToken("").isEmpty());
+        assertTrue(jwtTokenProvider.parseToken(null).isEmpty());
+    }
+
+    @Test
+    void parseToken_WithTamperedSignature_ShouldReturnEmpty() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(1L, 10L, "test@example.com");
+        // The signature's first character, as the last one also holds unused padding bits
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(tampered).isEmpty());
+    }
+
+    @Test
+    void parseToken_WithAlteredUnusedSignatureBits_ShouldReturnEmpty() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(1L, 10L, "test@example.com");
+        // The last of a 32-byte signature's 43 characters carries 2 unused low bits; flipping them
+        // still decodes to the same bytes
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        int lastIndex = alphabet.indexOf(token.charAt(token.length() - 1));
+        String tampered = token.substring(0, token.length() - 1) + alphabet.charAt(lastIndex ^ 1);
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(tampered).isEmpty());
+        assertTrue(jwtTokenProvider.parseToken(token).isPresent());
+    }
+
+    @Test
+    void parseToken_WithTokenSignedByOtherKey_ShouldReturnEmpty() {
+        // Arrange
+        JwtTokenProvider otherProvider = new JwtTokenProvider("anotherSecretKey12345678901234567890123456", testExpiration);
+        String token = otherProvider.generateToken(1L, 10L, "test@example.com");
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void parseToken_WithRepeatedToken_ShouldServeVerifiedClaimsFromCache() {
+        // Arrange
+        String token = jwtTokenProvider.generateToken(1L, 10L, "test@example.com");
+
+        // Act
+        TokenClaims first = jwtTokenProvider.parseToken(token).orElseThrow();
+        TokenClaims second = jwtTokenProvider.parseToken(token).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseToken_WithCachedTokenThatExpired_ShouldReturnEmpty() throws InterruptedException {
+        // Arrange
+        JwtTokenProvider shortExpirationProvider = new JwtTokenProvider(testSecret, 1500);
+        String token = shortExpirationProvider.generateToken(1L, 10L, "test@example.com");
+        assertTrue(shortExpirationProvider.parseToken(token).isPresent());
+
+        // Act
+        Thread.sleep(1600);
+
+        // Assert
+        assertTrue(shortExpirationProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void generateToken_ShouldBeReadableByJjwtParser() {
+        // Arrange
+        SecretKey key = Keys.hmacShaKeyFor(testSecret.getBytes());
+        String token = jwtTokenProvider.generateToken(5L, 50L, "compat@example.com");
+
+        // Act
+        Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+
+        // Assert
+        assertEquals("5", claims.get("userId", String.class));
+        assertEquals("50", claims.get("householdId", String.class));
+        assertEquals("compat@example.com", claims.get("email", String.class));
+        assertNotNull(claims.getIssuedAt());
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    void parseToken_WithTokenIssuedByJjwt_ShouldReturnClaims() {
+        // Arrange - claims written in a different order fall back to the general parser
+        SecretKey key = Keys.hmacShaKeyFor(testSecret.getBytes());
+        String token = Jwts.builder()
+                .claim("email", "legacy@example.com")
+                .claim("householdId", "20")
+                .claim("userId", "2")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + testExpiration))
+                .signWith(key)
+                .compact();
+
+        // Act
+        TokenClaims claims = jwtTokenProvider.parseToken(token).orElseThrow();
+
+        // Assert
+        assertEquals(2L, claims.userId());
+        assertEquals(20L, claims.householdId());
+        assertEquals("legacy@example.com", claims.email());
+    }
+
+    @Test
+    void parseToken_WithSignedTokenWithoutIssuedAt_ShouldReturnEmpty() {
+        // Arrange
+        SecretKey key = Keys.hmacShaKeyFor(testSecret.getBytes());
+        String token = Jwts.builder()
+                .claim("userId", "1")
+                .claim("householdId", "10")
+                .claim("email", "noiat@example.com")
+                .expiration(new Date(System.currentTimeMillis() + testExpiration))
+                .signWith(key)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+        assertFalse(jwtTokenProvider.validateToken(token));
+    }
+
+    @Test
+    void parseToken_WithSignedTokenWithoutExpiration_ShouldReturnEmpty() {
+        // Arrange
+        SecretKey key = Keys.hmacShaKeyFor(testSecret.getBytes());
+        String token = Jwts.builder()
+                .claim("userId", "1")
+                .claim("householdId", "10")
+                .claim("email", "noexp@example.com")
+                .issuedAt(new Date())
+                .signWith(key)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void parseToken_WithUnsignedToken_ShouldReturnEmpty() {
+        // Arrange
+        String token = Jwts.builder()
+                .claim("userId", "1")
+                .claim("householdId", "10")
+                .claim("email", "none@example.com")
+                .expiration(new Date(System.currentTimeMillis() + testExpiration))
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtTokenProvider.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void tokenRoundTrip_WithCharactersRequiringEscaping_ShouldPreserveEmail() {
+        // Arrange
+        String email = "quote\"back\\slash\u0001@example.com";
+
+        // Act
+        String token = jwtTokenProvider.generateToken(1L, 10L, email);
+
+        // Assert
+        assertEquals(email, jwtTokenProvider.parseToken(token).orElseThrow().email());
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.axelnyman.main.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.axelnyman.main.shared.exceptions.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One worker and one queue slot, with an encoder that blocks until released
+        executor = new PasswordHashingExecutor(new BlockingPasswordEncoder(release), meterRegistry, 1, 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void encode_ShouldCompleteWithHashedPassword() throws Exception {
+        // Arrange
+        release.countDown();
+
+        // Act
+        String hash = executor.encode("password123").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("hashed:password123", hash);
+        assertEquals(1, meterRegistry.get("auth.password.hashing.duration").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void matches_ShouldCompleteWithResult() throws Exception {
+        // Arrange
+        release.countDown();
+
+        // Act & Assert
+        assertTrue(executor.matches("password123", "hashed:password123").get(5, TimeUnit.SECONDS));
+        assertFalse(executor.matches("wrong", "hashed:password123").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldFailWithServiceOverloaded() {
+        // Arrange - occupy the single worker and the single queue slot
+        CompletableFuture<String> running = executor.encode("first");
+        CompletableFuture<String> queued = executor.encode("second");
+
+        // Act
+        CompletableFuture<String> rejected = executor.encode("third");
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        ServiceOverloadedException cause = assertInstanceOf(ServiceOverloadedException.class, exception.getCause());
+        assertEquals(3, cause.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+        assertFalse(running.isDone());
+        assertFalse(queued.isDone());
+    }
+
+    private static final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        private final CountDownLatch release;
+
+        private BlockingPasswordEncoder(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            awaitRelease();
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            awaitRelease();
+            return encodedPassword.equals("hashed:" + rawPassword);
+        }
+
+        private void awaitRelease() {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
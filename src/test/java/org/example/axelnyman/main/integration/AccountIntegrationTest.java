@@ -0,0 +1,659 @@
+package org.example.axelnyman.main.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.axelnyman.main.infrastructure.scheduling.MonthlyBalanceRepairJob;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+public class AccountIntegrationTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MonthlyBalanceRepairJob monthlyBalanceRepairJob;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Account links reference users, which other test classes delete through their repositories
+        deleteAll();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldCreateAccountWithoutBalance() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+
+        mockMvc.perform(post("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("accountName", "  Savings  "))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.accountName", is("Savings")))
+                .andExpect(jsonPath("$.createdAt", notNullValue()));
+
+        mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountName", is("Savings")))
+                .andExpect(jsonPath("$[0].currentBalance", nullValue()))
+                .andExpect(jsonPath("$[0].balanceDate", nullValue()));
+    }
+
+    @Test
+    void shouldKeepLatestDayAsCurrentBalanceWhenRecordedOutOfOrder() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+
+        // Act: the latest day is recorded before an earlier one
+        recordBalance(token, accountId, "2024-03-01", "100.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-03-03", "300.50")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is((int) accountId)))
+                .andExpect(jsonPath("$.balanceAmount", is(300.50)))
+                .andExpect(jsonPath("$.balanceDate", is("2024-03-03")));
+        recordBalance(token, accountId, "2024-03-02", "200").andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balanceAmount", is(300.50)))
+                .andExpect(jsonPath("$.balanceDate", is("2024-03-03")));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].balanceDate", contains("2024-03-03", "2024-03-02", "2024-03-01")))
+                .andExpect(jsonPath("$[*].balanceAmount", contains(300.50, 200.00, 100.00)));
+        mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].currentBalance", is(300.50)))
+                .andExpect(jsonPath("$[0].balanceDate", is("2024-03-03")));
+    }
+
+    @Test
+    void shouldReplaceBalanceRecordedForSameDay() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+        recordBalance(token, accountId, "2024-03-01", "100.00").andExpect(status().isOk());
+
+        // Act
+        recordBalance(token, accountId, "2024-03-01", "150.25").andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].balanceAmount", is(150.25)));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(jsonPath("$.balanceAmount", is(150.25)));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balances WHERE account_id = ?", Integer.class, accountId));
+    }
+
+    @Test
+    void shouldReturn404ForCurrentBalanceBeforeFirstOneIsRecorded() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldShareAccountsWithHouseholdMembersOnly() throws Exception {
+        // Arrange: Sam joins Jane's household, John has his own
+        String janeToken = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(janeToken, "Joint");
+        recordBalance(janeToken, accountId, "2024-03-01", "100.00").andExpect(status().isOk());
+        registerAndGetToken("sam@example.com", "Sam", "Smith");
+        jdbcTemplate.update("UPDATE users SET household_id = (SELECT household_id FROM users WHERE email = ?) "
+                + "WHERE email = ?", "jane@example.com", "sam@example.com");
+        // Tokens carry the household, so Sam signs in again after moving
+        String samToken = loginAndGetToken("sam@example.com");
+        String johnToken = registerAndGetToken("john@example.com", "John", "Doe");
+
+        // Act & Assert: the household member sees and updates the account
+        recordBalance(samToken, accountId, "2024-03-02", "120.00").andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + samToken))
+                .andExpect(jsonPath("$[*].accountName", contains("Joint")))
+                .andExpect(jsonPath("$[0].currentBalance", is(120.00)));
+
+        // Act & Assert: anyone else gets 404, as if the account did not exist
+        mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + johnToken))
+                .andExpect(jsonPath("$", hasSize(0)));
+        recordBalance(johnToken, accountId, "2024-03-03", "0.00")
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Account not found")));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + johnToken))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + johnToken)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Account not found")));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + johnToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldPageBalanceHistoryWithCursorsAndStreamItAsNdjson() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+        importBalances(token, accountId, "text/csv",
+                "balanceDate,balanceAmount\n2024-03-01,100.00\n2024-03-02,200.00\n2024-03-03,300.00\n2024-03-04,400.00\n2024-03-05,500.00\n")
+                .andExpect(status().isOk());
+
+        // Act & Assert: each page links to the next, newest first, until the last one
+        MvcResult firstPage = mockMvc.perform(get("/api/accounts/" + accountId + "/balances?limit=2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].balanceDate", contains("2024-03-05", "2024-03-04")))
+                .andExpect(header().string(HttpHeaders.LINK, endsWith("; rel=\"next\"")))
+                .andReturn();
+        MvcResult secondPage = mockMvc.perform(get(nextPage(firstPage))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].balanceDate", contains("2024-03-03", "2024-03-02")))
+                .andExpect(header().exists(HttpHeaders.LINK))
+                .andReturn();
+        mockMvc.perform(get(nextPage(secondPage))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].balanceDate", contains("2024-03-01")))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // Act & Assert: the whole history as one JSON object per line
+        MvcResult export = mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        String[] lines = export.getResponse().getContentAsString().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("2024-03-05", objectMapper.readTree(lines[0]).get("balanceDate").asText());
+        assertEquals("2024-03-01", objectMapper.readTree(lines[4]).get("balanceDate").asText());
+    }
+
+    @Test
+    void shouldReturn400ForInvalidBalanceHistoryPage() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor")));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid limit")));
+    }
+
+    @Test
+    void shouldReturn400ForInvalidBalance() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+
+        recordBalance(token, accountId, "2024-03-01", "1.005")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid balance amount")));
+        mockMvc.perform(put("/api/accounts/" + accountId + "/balances/2024-03-01")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.balanceAmount[0]", is("Balance amount is required")));
+        recordBalance(token, accountId, "01-03-2024", "1.00")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid balanceDate")));
+    }
+
+    @Test
+    void shouldImportCsvBalancesAndReportRejectedLines() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+        recordBalance(token, accountId, "2024-03-05", "500.00").andExpect(status().isOk());
+        String csv = """
+                balanceDate,balanceAmount
+                2024-03-01,100.00
+                2024-03-02,"200.5"
+
+                2024-03-02,250.00
+                2024-13-01,1.00
+                2024-03-03,1.005
+                2024-03-04
+                2024-03-06,600
+                """;
+
+        // Act: the second 2024-03-02 line wins, three lines are rejected
+        importBalances(token, accountId, "text/csv", csv)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows", is(4)))
+                .andExpect(jsonPath("$.rejectedRows", is(3)))
+                .andExpect(jsonPath("$.rejections[*].line", contains(6, 7, 8)))
+                .andExpect(jsonPath("$.rejections[*].reason", contains(
+                        "Invalid balance date", "Invalid balance amount", "Expected 2 fields, found 1")))
+                .andExpect(jsonPath("$.rowsPerSecond", greaterThanOrEqualTo(0)));
+
+        // Assert
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].balanceDate", contains("2024-03-06", "2024-03-05", "2024-03-02", "2024-03-01")))
+                .andExpect(jsonPath("$[*].balanceAmount", contains(600.00, 500.00, 250.00, 100.00)));
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances/current")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(jsonPath("$.balanceAmount", is(600.00)))
+                .andExpect(jsonPath("$.balanceDate", is("2024-03-06")));
+    }
+
+    @Test
+    void shouldImportNdjsonBalancesWithoutMovingCurrentBalanceBack() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+        recordBalance(token, accountId, "2024-03-05", "500.00").andExpect(status().isOk());
+        String ndjson = """
+                {"balanceDate": "2024-03-01", "balanceAmount": 100.25}
+                {"balanceDate": "2024-03-02", "balanceAmount": "200"}
+                {"balanceDate": "2024-03-03"
+                [1, 2]
+                {"balanceDate": "2024-03-05", "balanceAmount": 550}
+                """;
+
+        // Act
+        importBalances(token, accountId, "application/x-ndjson", ndjson)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows", is(3)))
+                .andExpect(jsonPath("$.rejectedRows", is(2)))
+                .andExpect(jsonPath("$.rejections[*].reason", contains("Invalid JSON", "Expected a JSON object")));
+
+        // Assert: older days land in the history, the same latest day is replaced
+        mockMvc.perform(get("/api/accounts/" + accountId + "/balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(jsonPath("$[*].balanceAmount", contains(550.00, 200.00, 100.25)));
+        mockMvc.perform(get("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(jsonPath("$[0].currentBalance", is(550.00)))
+                .andExpect(jsonPath("$[0].balanceDate", is("2024-03-05")));
+    }
+
+    @Test
+    void shouldRejectImportsOutsideHouseholdAndOfUnsupportedType() throws Exception {
+        String janeToken = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(janeToken, "Checking");
+        String johnToken = registerAndGetToken("john@example.com", "John", "Doe");
+
+        importBalances(johnToken, accountId, "text/csv", "2024-03-01,1.00\n")
+                .andExpect(status().isNotFound());
+        importBalances(janeToken, accountId, "application/json", "{}")
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.error", is("Unsupported content type")));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balances WHERE account_id = ?", Integer.class, accountId));
+    }
+
+    @Test
+    void shouldCarryBalancesForwardIntoMonthlyNetWorth() throws Exception {
+        // Arrange: Savings has a balance from before the range, Empty never gets one
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long checkingId = createAccount(token, "Checking");
+        long savingsId = createAccount(token, "Savings");
+        createAccount(token, "Empty");
+        recordBalance(token, checkingId, "2024-01-10", "100.00").andExpect(status().isOk());
+        recordBalance(token, checkingId, "2024-01-20", "150.00").andExpect(status().isOk());
+        recordBalance(token, checkingId, "2024-03-05", "300.00").andExpect(status().isOk());
+        recordBalance(token, savingsId, "2023-12-15", "1000.00").andExpect(status().isOk());
+        recordBalance(token, savingsId, "2024-02-10", "900.00").andExpect(status().isOk());
+        String johnToken = registerAndGetToken("john@example.com", "John", "Doe");
+        recordBalance(johnToken, createAccount(johnToken, "Other household"), "2024-02-01", "5000.00")
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01-01")
+                .param("to", "2024-04-30")
+                .param("granularity", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].date", contains("2024-01-01", "2024-02-01", "2024-03-01", "2024-04-01")))
+                .andExpect(jsonPath("$[*].netWorth", contains(1150.00, 1050.00, 1200.00, 1200.00)));
+    }
+
+    @Test
+    void shouldLimitMonthlyNetWorthToBalancesInsidePartialMonths() throws Exception {
+        // Arrange: balances before a mid-month from and after a mid-month to
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Checking");
+        recordBalance(token, accountId, "2024-01-05", "100.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-01-12", "900.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-01-20", "150.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-02-10", "200.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-03-10", "300.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-03-25", "350.00").andExpect(status().isOk());
+
+        // Act & Assert: January opens at 100.00 and closes at 150.00, March stops at the 15th
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01-15")
+                .param("to", "2024-03-15")
+                .param("granularity", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].date", contains("2024-01-01", "2024-02-01", "2024-03-01")))
+                .andExpect(jsonPath("$[*].netWorth", contains(150.00, 200.00, 300.00)));
+        // Within a single month, both ends are cut
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01-06")
+                .param("to", "2024-01-15")
+                .param("granularity", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].date", contains("2024-01-01")))
+                .andExpect(jsonPath("$[*].netWorth", contains(900.00)));
+    }
+
+    @Test
+    void shouldReturnDailyNetWorthFromFirstRecordedDay() throws Exception {
+        // Arrange
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long checkingId = createAccount(token, "Checking");
+        long savingsId = createAccount(token, "Savings");
+        recordBalance(token, checkingId, "2024-01-10", "100.00").andExpect(status().isOk());
+        recordBalance(token, savingsId, "2024-01-01", "1000.50").andExpect(status().isOk());
+
+        // Act & Assert: Checking counts as zero until its first balance
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01-09")
+                .param("to", "2024-01-11")
+                .param("granularity", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].date", contains("2024-01-09", "2024-01-10", "2024-01-11")))
+                .andExpect(jsonPath("$[*].netWorth", contains(1000.50, 1100.50, 1100.50)));
+    }
+
+    @Test
+    void shouldReturn400ForInvalidNetWorthRange() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-02-01")
+                .param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid date range")));
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2000-01-01")
+                .param("to", "2024-01-01")
+                .param("granularity", "day"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Date range exceeds 3660 points")));
+        mockMvc.perform(get("/api/households/net-worth")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid granularity")));
+    }
+
+    @Test
+    void shouldKeepMonthlyBalancesCurrentAsBalancesAreRecordedAndImported() throws Exception {
+        // Arrange: the 2024-01-10 balance is replaced, then an import adds to January and starts February
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Savings");
+        recordBalance(token, accountId, "2024-01-10", "100.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-01-20", "150.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-01-10", "50.00").andExpect(status().isOk());
+        importBalances(token, accountId, "text/csv", "2024-01-25,200.00\n2024-02-03,300.00\n")
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/households/monthly-balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01")
+                .param("to", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].month", contains("2024-01", "2024-02")))
+                .andExpect(jsonPath("$[0].accountName", is("Savings")))
+                .andExpect(jsonPath("$[0].closingBalance", is(200.00)))
+                .andExpect(jsonPath("$[0].closingDate", is("2024-01-25")))
+                .andExpect(jsonPath("$[0].minBalance", is(50.00)))
+                .andExpect(jsonPath("$[0].maxBalance", is(200.00)))
+                .andExpect(jsonPath("$[0].averageBalance", is(133.33)))
+                .andExpect(jsonPath("$[0].balanceCount", is(3)))
+                .andExpect(jsonPath("$[1].closingBalance", is(300.00)))
+                .andExpect(jsonPath("$[1].balanceCount", is(1)));
+    }
+
+    @Test
+    void shouldRepairMonthlyBalancesFromBalanceHistory() throws Exception {
+        // Arrange: rollups written around the balance history, one missing, one wrong, one left over
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        long accountId = createAccount(token, "Savings");
+        recordBalance(token, accountId, "2024-01-10", "100.00").andExpect(status().isOk());
+        recordBalance(token, accountId, "2024-02-10", "200.00").andExpect(status().isOk());
+        jdbcTemplate.update("DELETE FROM account_monthly_balances WHERE balance_month = '2024-01-01'");
+        jdbcTemplate.update("UPDATE account_monthly_balances SET closing_balance = 1 WHERE balance_month = '2024-02-01'");
+        jdbcTemplate.update("INSERT INTO account_monthly_balances (account_id, balance_month, closing_balance, " +
+                "closing_date, min_balance, max_balance, balance_sum, balance_count, updated_at) " +
+                "VALUES (?, '2024-03-01', 5, '2024-03-01', 5, 5, 5, 1, now())", accountId);
+
+        // Act
+        int written = monthlyBalanceRepairJob.repair(YearMonth.of(2024, 1), YearMonth.of(2024, 3));
+
+        // Assert
+        assertEquals(2, written);
+        mockMvc.perform(get("/api/households/monthly-balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-01")
+                .param("to", "2024-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].month", contains("2024-01", "2024-02")))
+                .andExpect(jsonPath("$[*].closingBalance", contains(100.00, 200.00)));
+    }
+
+    @Test
+    void shouldReturn400ForInvalidMonthlyBalanceRange() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+
+        mockMvc.perform(get("/api/households/monthly-balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-02")
+                .param("to", "2024-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid date range")));
+        mockMvc.perform(get("/api/households/monthly-balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2000-01")
+                .param("to", "2024-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Date range exceeds 120 months")));
+        mockMvc.perform(get("/api/households/monthly-balances")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("from", "2024-13"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid from")));
+    }
+
+    @Test
+    void shouldReturn400ForBlankAccountName() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+
+        mockMvc.perform(post("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("accountName", " "))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid account name")));
+    }
+
+    @Test
+    void shouldReturn401WhenNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/api/accounts"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM account_monthly_balances");
+        jdbcTemplate.update("DELETE FROM account_latest_balances");
+        jdbcTemplate.update("DELETE FROM account_balances");
+        jdbcTemplate.update("DELETE FROM user_bank_accounts");
+        jdbcTemplate.update("DELETE FROM bank_accounts");
+        jdbcTemplate.update("DELETE FROM household_invitations");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM households");
+    }
+
+    private long createAccount(String token, String accountName) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/accounts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("accountName", accountName))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private URI nextPage(MvcResult page) {
+        String link = page.getResponse().getHeader(HttpHeaders.LINK);
+        return URI.create(link.substring(link.indexOf('<') + 1, link.indexOf('>')));
+    }
+
+    private ResultActions recordBalance(String token, long accountId, String date, String amount) throws Exception {
+        return mockMvc.perform(put("/api/accounts/" + accountId + "/balances/" + date)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"balanceAmount\": " + amount + "}"));
+    }
+
+    private ResultActions importBalances(String token, long accountId, String contentType, String body) throws Exception {
+        return mockMvc.perform(post("/api/accounts/" + accountId + "/balances/import")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(contentType)
+                .content(body));
+    }
+
+    private String registerAndGetToken(String email, String firstName, String lastName) throws Exception {
+        var registerResponse = performAsync(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "firstName", firstName,
+                        "lastName", lastName,
+                        "email", email,
+                        "password", "password123"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readTree(registerResponse.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private String loginAndGetToken(String email) throws Exception {
+        var loginResponse = performAsync(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "email", email,
+                        "password", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readTree(loginResponse.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
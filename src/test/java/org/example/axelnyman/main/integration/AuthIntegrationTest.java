@@ -1,6 +1,8 @@
 package org.example.axelnyman.main.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,11 +10,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -35,7 +41,14 @@ import org.example.axelnyman.main.infrastructure.data.context.HouseholdRepositor
 import org.example.axelnyman.main.infrastructure.security.JwtTokenProvider;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
@@ -76,6 +89,9 @@ public class AuthIntegrationTest {
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -101,7 +117,7 @@ public class AuthIntegrationTest {
         RegisterRequest request = new RegisterRequest(
                 "John", "Doe", "john.doe@example.com", "password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -132,7 +148,7 @@ public class AuthIntegrationTest {
         RegisterRequest request = new RegisterRequest(
                 "Alice", "Johnson", "alice.johnson@example.com", "password123");
 
-        String responseContent = mockMvc.perform(post("/api/auth/register")
+        String responseContent = performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -160,7 +176,7 @@ public class AuthIntegrationTest {
         RegisterRequest request = new RegisterRequest(
                 "Bob", "Smith", "bob.smith@example.com", "password123");
 
-        String responseContent = mockMvc.perform(post("/api/auth/register")
+        String responseContent = performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -195,7 +211,7 @@ public class AuthIntegrationTest {
         RegisterRequest request = new RegisterRequest(
                 "John", "Doe", "jane.doe@example.com", "password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest())
@@ -203,6 +219,98 @@ public class AuthIntegrationTest {
                 .andExpect(jsonPath("$.details.email[0]", is("Email already exists")));
     }
 
+    @Test
+    void shouldSkipExistenceQueryForUnseenEmailsAndRejectRegisteredOnes() throws Exception {
+        Counter absent = meterRegistry.get("registration.email.filter.checks").tag("result", "absent").counter();
+        Counter maybePresent = meterRegistry.get("registration.email.filter.checks").tag("result", "maybe-present").counter();
+        double absentBefore = absent.count();
+        double maybePresentBefore = maybePresent.count();
+
+        RegisterRequest request = new RegisterRequest(
+                "John", "Doe", "filter.test@example.com", "password123");
+
+        performAsync(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        assertEquals(absentBefore + 1, absent.count());
+
+        // The new email is in the filter, so the second attempt is checked against the database
+        performAsync(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.email[0]", is("Email already exists")));
+        assertEquals(maybePresentBefore + 1, maybePresent.count());
+    }
+
+    @Test
+    void shouldRegisterExactlyOneOfConcurrentSignupsWithSameEmail() throws Exception {
+        int signups = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(signups);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < signups; i++) {
+                RegisterRequest request = new RegisterRequest(
+                        "Racer" + i, "Doe", "race@example.com", "password123");
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return performAsync(post("/api/auth/register")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(request)))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            int rejected = 0;
+            for (Future<Integer> status : statuses) {
+                int code = status.get(60, TimeUnit.SECONDS);
+                if (code == 201) {
+                    created++;
+                } else if (code == 400) {
+                    rejected++;
+                }
+            }
+
+            assertEquals(1, created);
+            assertEquals(signups - 1, rejected);
+            assertThat(userRepository.count(), is(1L));
+            // The losers' households are rolled back with their user insert
+            assertThat(householdRepository.count(), is(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRegisterConcurrentSignupsWithDistinctEmails() throws Exception {
+        int signups = 64;
+        int clients = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < signups; i++) {
+                RegisterRequest request = new RegisterRequest(
+                        "User" + i, "Doe", "user" + i + "@example.com", "password123");
+                statuses.add(executor.submit(() -> performAsync(post("/api/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andReturn().getResponse().getStatus()));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(201, status.get(60, TimeUnit.SECONDS));
+            }
+
+            assertThat(userRepository.count(), is((long) signups));
+            assertThat(householdRepository.count(), is((long) signups));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void shouldNotRegisterUserWithInvalidEmail() throws Exception {
         RegisterRequest request = new RegisterRequest(
@@ -250,7 +358,7 @@ public class AuthIntegrationTest {
 
         LoginRequest loginDto = new LoginRequest("john.doe@example.com", rawPassword);
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isOk())
@@ -263,6 +371,28 @@ public class AuthIntegrationTest {
                 .andExpect(jsonPath("$.user.createdAt", notNullValue()));
     }
 
+    @Test
+    void shouldLoginWithSingleQuery() throws Exception {
+        // Create test user
+        Household household = HouseholdExtensions.toEntity("Test Household");
+        Household savedHousehold = householdRepository.save(household);
+
+        String rawPassword = "password123";
+        User user = new User("John", "Doe", "john.doe@example.com", rawPassword, savedHousehold);
+        userRepository.save(user);
+
+        LoginRequest loginDto = new LoginRequest("john.doe@example.com", rawPassword);
+
+        // Credentials, ids and household name come from one select; no lazy household load
+        QueryCountInspector.reset();
+        performAsync(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user.household.name", is("Test Household")));
+        assertEquals(1, QueryCountInspector.count(), () -> String.join("\n", QueryCountInspector.statements()));
+    }
+
     @Test
     void shouldValidateJwtTokenClaimsAfterLogin() throws Exception {
         // Create test user
@@ -275,7 +405,7 @@ public class AuthIntegrationTest {
 
         LoginRequest loginDto = new LoginRequest("jane.smith@example.com", rawPassword);
 
-        String responseContent = mockMvc.perform(post("/api/auth/login")
+        String responseContent = performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isOk())
@@ -293,11 +423,48 @@ public class AuthIntegrationTest {
         assertEquals("jane.smith@example.com", jwtTokenProvider.getEmailFromToken(token));
     }
 
+    @Test
+    void shouldUpgradeStaleCostPasswordHashAfterLogin() throws Exception {
+        // Create test user whose hash predates the encoder prefix and uses a lower cost
+        Household household = HouseholdExtensions.toEntity("Upgrade Test Household");
+        Household savedHousehold = householdRepository.save(household);
+
+        String rawPassword = "password123";
+        String legacyHash = new BCryptPasswordEncoder(4).encode(rawPassword);
+        User user = new User("Una", "Grade", "una.grade@example.com", rawPassword, savedHousehold);
+        user.setHashedPassword(legacyHash);
+        User savedUser = userRepository.save(user);
+
+        LoginRequest loginDto = new LoginRequest("una.grade@example.com", rawPassword);
+
+        performAsync(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk());
+
+        // The re-hash is stored in the background after the response
+        String upgradedHash = legacyHash;
+        for (int attempt = 0; attempt < 50 && upgradedHash.equals(legacyHash); attempt++) {
+            Thread.sleep(100);
+            upgradedHash = userRepository.findById(savedUser.getId()).orElseThrow().getHashedPassword();
+        }
+
+        assertThat(upgradedHash, startsWith("{bcrypt}$2a$10$"));
+        assertTrue(passwordEncoder.matches(rawPassword, upgradedHash));
+        assertFalse(passwordEncoder.upgradeEncoding(upgradedHash));
+
+        // Logging in again works with the upgraded hash
+        performAsync(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDto)))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void shouldReturnUnauthorizedForInvalidEmail() throws Exception {
         LoginRequest loginDto = new LoginRequest("nonexistent@example.com", "password123");
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isUnauthorized())
@@ -317,7 +484,7 @@ public class AuthIntegrationTest {
 
         LoginRequest loginDto = new LoginRequest("bob.johnson@example.com", "wrongPassword");
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isUnauthorized())
@@ -338,7 +505,7 @@ public class AuthIntegrationTest {
 
         LoginRequest loginDto = new LoginRequest("alice.williams@example.com", rawPassword);
 
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isUnauthorized())
@@ -364,4 +531,11 @@ public class AuthIntegrationTest {
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
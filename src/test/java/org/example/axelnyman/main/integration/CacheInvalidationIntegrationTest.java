@@ -0,0 +1,139 @@
+package org.example.axelnyman.main.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.HouseholdResponse;
+import org.example.axelnyman.main.domain.model.Household;
+import org.example.axelnyman.main.domain.model.User;
+import org.example.axelnyman.main.infrastructure.cache.CacheInvalidationBus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two application instances against one database and checks that a change made through one
+ * evicts the other's cached household.
+ */
+@Testcontainers
+public class CacheInvalidationIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        // Node A only publishes when a test flushes, so notification counts are deterministic
+        nodeA = startNode("--cache.invalidation.flush-interval=PT1H");
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldEvictHouseholdOnOtherNodeAfterRename() throws Exception {
+        // Arrange: both nodes have the household cached
+        Long householdId = createHousehold("Original Name");
+        assertEquals("Original Name", details(nodeA, householdId).name());
+        assertEquals("Original Name", details(nodeB, householdId).name());
+
+        // Act
+        nodeA.getBean(IDomainService.class).updateHouseholdName(householdId, "Renamed");
+        nodeA.getBean(CacheInvalidationBus.class).flush();
+
+        // Assert
+        assertEquals("Renamed", details(nodeA, householdId).name());
+        awaitUntil(() -> "Renamed".equals(details(nodeB, householdId).name()));
+    }
+
+    @Test
+    void shouldCoalesceEvictionsIntoOneNotification() throws Exception {
+        // Arrange
+        Long householdId = createHousehold("Busy Household");
+        assertEquals(1, details(nodeB, householdId).memberCount());
+        double receivedBefore = receivedNotifications(nodeB);
+        CacheInvalidationBus bus = nodeA.getBean(CacheInvalidationBus.class);
+
+        // Act: a burst of changes to many households goes out as a single NOTIFY
+        for (long id = 1; id <= 500; id++) {
+            bus.publishHousehold(id);
+        }
+        bus.publishHousehold(householdId);
+        int sent = bus.flush();
+
+        // Assert
+        assertEquals(1, sent);
+        awaitUntil(() -> receivedNotifications(nodeB) == receivedBefore + 1);
+    }
+
+    private static ConfigurableApplicationContext startNode(String... extraArguments) {
+        String[] arguments = {
+                "--spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "--spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "--spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "--spring.datasource.driver-class-name=org.postgresql.Driver"
+        };
+        String[] all = new String[arguments.length + extraArguments.length];
+        System.arraycopy(arguments, 0, all, 0, arguments.length);
+        System.arraycopy(extraArguments, 0, all, arguments.length, extraArguments.length);
+        return new SpringApplicationBuilder(MainApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run(all);
+    }
+
+    private static Long createHousehold(String name) {
+        User user = new User();
+        user.setFirstName("Cache");
+        user.setLastName("Test");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setHashedPassword("hash");
+        user.setHousehold(new Household(name));
+        return nodeA.getBean(IDataService.class).insertUserWithHousehold(user).orElseThrow().getHousehold().getId();
+    }
+
+    private static HouseholdResponse details(ConfigurableApplicationContext node, Long householdId) {
+        return node.getBean(IDomainService.class).getHouseholdDetails(householdId).orElseThrow();
+    }
+
+    private static double receivedNotifications(ConfigurableApplicationContext node) {
+        return node.getBean(MeterRegistry.class).get("cache.invalidation.notifications")
+                .tag("direction", "received").counter().count();
+    }
+
+    private static void awaitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.get()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within " + TIMEOUT_MILLIS + " ms");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.example.axelnyman.main.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.axelnyman.main.domain.model.User;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdRepository;
+import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers
+public class DashboardIntegrationTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseholdRepository householdRepository;
+
+    @Autowired
+    private HouseholdInvitationRepository householdInvitationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        householdInvitationRepository.deleteAll();
+        userRepository.deleteAll();
+        householdRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldReturnProfileHouseholdMembersAndInvitationsInOneResponse() throws Exception {
+        // Arrange: Jane has a second member in her household and an invitation from John
+        String janeToken = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        User jane = userRepository.findActiveByEmail("jane@example.com").orElseThrow();
+        userRepository.save(new User("Sam", "Smith", "sam@example.com", "hashedPassword123", jane.getHousehold()));
+        String johnToken = registerAndGetToken("john@example.com", "John", "Doe");
+        mockMvc.perform(post("/api/households/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + johnToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", "jane@example.com"))))
+                .andExpect(status().isCreated());
+
+        // Act & Assert
+        performAsync(get("/api/dashboard")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + janeToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profile.email", is("jane@example.com")))
+                .andExpect(jsonPath("$.profile.household.name", is("Jane Smith's Household")))
+                .andExpect(jsonPath("$.household.name", is("Jane Smith's Household")))
+                .andExpect(jsonPath("$.household.memberCount", is(2)))
+                .andExpect(jsonPath("$.members[*].email", containsInAnyOrder("jane@example.com", "sam@example.com")))
+                .andExpect(jsonPath("$.invitations", hasSize(1)))
+                .andExpect(jsonPath("$.invitations[0].householdName", is("John Doe's Household")))
+                .andExpect(jsonPath("$.invitations[0].invitedBy.email", is("john@example.com")));
+    }
+
+    @Test
+    void shouldReportSectionDurationsInServerTimingHeader() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+
+        performAsync(get("/api/dashboard")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", matchesPattern(
+                        "profile;dur=\\d+\\.\\d, household;dur=\\d+\\.\\d, members;dur=\\d+\\.\\d, "
+                                + "invitations;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d")));
+    }
+
+    @Test
+    void shouldReturn404WhenUserNoLongerExists() throws Exception {
+        String token = registerAndGetToken("jane@example.com", "Jane", "Smith");
+        userRepository.deleteAll();
+
+        performAsync(get("/api/dashboard")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldReturn401WhenNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/api/dashboard"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String registerAndGetToken(String email, String firstName, String lastName) throws Exception {
+        var registerResponse = performAsync(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "firstName", firstName,
+                        "lastName", lastName,
+                        "email", email,
+                        "password", "password123"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        return objectMapper.readTree(registerResponse.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.axelnyman.main.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterAll;
@@ -13,6 +14,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -20,6 +24,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -66,6 +72,9 @@ public class HouseholdIntegrationTest {
         @Autowired
         private ObjectMapper objectMapper;
 
+        @Autowired
+        private MeterRegistry meterRegistry;
+
         private MockMvc mockMvc;
 
         @BeforeEach
@@ -333,13 +342,100 @@ public class HouseholdIntegrationTest {
                 assert !refreshedHousehold1.getId().equals(refreshedHousehold2.getId());
         }
 
+        @Test
+        void shouldServeRepeatedHouseholdReadsFromCache() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                double hitsBefore = cacheGets("hit");
+
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk());
+
+                // The second read is answered without touching the database
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name", is("John Doe's Household")))
+                                .andExpect(jsonPath("$.memberCount", is(1)));
+                assertEquals(0, QueryCountInspector.count(), () -> String.join("\n", QueryCountInspector.statements()));
+                assertEquals(hitsBefore + 1, cacheGets("hit"));
+        }
+
+        @Test
+        void shouldReturnRenamedHouseholdAfterUpdate() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+
+                // Populate the cache, then rename
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(jsonPath("$.name", is("John Doe's Household")));
+                mockMvc.perform(put("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(Map.of("name", "Renamed Household"))))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name", is("Renamed Household")));
+        }
+
+        @Test
+        void shouldReturn304ForUnchangedHouseholdWithoutQueries() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                String eTag = mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                assertThat(eTag, startsWith("W/\""));
+
+                // The version tag is cached along with the household, so nothing is queried
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                                .andExpect(content().string(""));
+                assertEquals(0, QueryCountInspector.count(), () -> String.join("\n", QueryCountInspector.statements()));
+        }
+
+        @Test
+        void shouldReturnNewETagAfterHouseholdRename() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                String eTag = mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                mockMvc.perform(put("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(Map.of("name", "Renamed Household"))))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/api/households")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                                .andExpect(jsonPath("$.name", is("Renamed Household")));
+        }
+
+        private double cacheGets(String result) {
+                return meterRegistry.get("cache.gets").tag("cache", "households.details").tag("result", result)
+                                .functionCounter().count();
+        }
+
         private String createUserAndGetToken(String email, String firstName, String lastName) throws Exception {
                 // Create household first
                 Household household = HouseholdExtensions.toEntity("Test Household");
                 householdRepository.save(household);
 
                 // Register user
-                mockMvc.perform(post("/api/auth/register")
+                performAsync(post("/api/auth/register")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(Map.of(
                                                 "firstName", firstName,
@@ -349,7 +445,7 @@ public class HouseholdIntegrationTest {
                                 .andExpect(status().isCreated());
 
                 // Login to get token
-                var loginResponse = mockMvc.perform(post("/api/auth/login")
+                var loginResponse = performAsync(post("/api/auth/login")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(Map.of(
                                                 "email", email,
@@ -360,4 +456,11 @@ public class HouseholdIntegrationTest {
                 var responseContent = objectMapper.readTree(loginResponse.getResponse().getContentAsString());
                 return responseContent.get("token").asText();
         }
-}
\ No newline at end of file
+
+        private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+                MvcResult result = mockMvc.perform(requestBuilder)
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                return mockMvc.perform(asyncDispatch(result));
+        }
+}
@@ -1,6 +1,8 @@
 package org.example.axelnyman.main.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
 import org.example.axelnyman.main.domain.model.Household;
 import org.example.axelnyman.main.domain.model.HouseholdInvitation;
 import org.example.axelnyman.main.domain.model.User;
@@ -8,6 +10,8 @@ import org.example.axelnyman.main.domain.extensions.HouseholdExtensions;
 import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
 import org.example.axelnyman.main.infrastructure.data.context.HouseholdRepository;
 import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.example.axelnyman.main.infrastructure.scheduling.InvitationExpirySweeper;
+import org.example.axelnyman.main.infrastructure.security.JwtTokenProvider;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,16 +20,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.Map;
 
@@ -35,6 +44,7 @@ import static org.hamcrest.Matchers.everyItem;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -75,6 +85,18 @@ public class HouseholdInvitationIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private IDataService dataService;
+
+    @Autowired
+    private InvitationExpirySweeper invitationExpirySweeper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -131,6 +153,45 @@ public class HouseholdInvitationIntegrationTest {
         assertTrue(savedInvitation.getExpiresAt().isAfter(LocalDateTime.now().plusDays(6)));
     }
 
+    @Test
+    void shouldCreateInvitationWithBoundedNumberOfQueries() throws Exception {
+        // Create inviting user and target user
+        String inviterToken = createUserAndGetToken("inviter@example.com", "John", "Doe");
+        createUserWithoutHousehold("invited@example.com", "Jane", "Smith");
+
+        // Create invitation and count the statements it issues
+        QueryCountInspector.reset();
+        mockMvc.perform(post("/api/households/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + inviterToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", "invited@example.com"))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.householdName", notNullValue()))
+                .andExpect(jsonPath("$.invitedBy.email", is("inviter@example.com")));
+
+        // Invited user lookup, inviter with household, invitation insert
+        assertTrue(QueryCountInspector.count() <= 3,
+                "Expected at most 3 statements but was " + QueryCountInspector.count());
+    }
+
+    @Test
+    void shouldReturn404WhenInvitingHouseholdNoLongerExists() throws Exception {
+        // Arrange: a token still carrying a household that does not exist
+        createUserAndGetToken("inviter@example.com", "John", "Doe");
+        createUserWithoutHousehold("invited@example.com", "Jane", "Smith");
+        User inviter = userRepository.findActiveByEmail("inviter@example.com").orElseThrow();
+        String staleToken = jwtTokenProvider.generateToken(inviter.getId(), Long.MAX_VALUE, inviter.getEmail());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/households/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + staleToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", "invited@example.com"))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Household not found")));
+        assertEquals(0, householdInvitationRepository.count());
+    }
+
     @Test
     void shouldReturn404WhenUserWithEmailNotFound() throws Exception {
         // Create inviting user
@@ -381,6 +442,74 @@ public class HouseholdInvitationIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(pendingInvitation.getId().intValue())));
     }
 
+    @Test
+    void shouldListInvitationsWithSingleQuery() throws Exception {
+        // Create user who will receive invitations
+        String invitedToken = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+        User invitedUser = userRepository.findActiveByEmail("invited@example.com").orElseThrow();
+        invitedUser.setHousehold(null);
+        userRepository.save(invitedUser);
+
+        // Create invitations from three different households
+        for (int i = 0; i < 3; i++) {
+            createUserAndGetToken("inviter" + i + "@example.com", "John", "Doe");
+            User inviter = userRepository.findActiveByEmail("inviter" + i + "@example.com").orElseThrow();
+            householdInvitationRepository.save(HouseholdExtensions.toInvitationEntity(
+                    inviter.getHousehold(), invitedUser, inviter));
+        }
+
+        // Household and inviter details come from the same statement as the invitations
+        QueryCountInspector.reset();
+        mockMvc.perform(get("/api/users/me/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].householdName", everyItem(is("John Doe's Household"))))
+                .andExpect(jsonPath("$[*].invitedEmail", everyItem(is("invited@example.com"))))
+                .andExpect(jsonPath("$[*].invitedBy.email", containsInAnyOrder(
+                        "inviter0@example.com", "inviter1@example.com", "inviter2@example.com")))
+                .andExpect(jsonPath("$[*].status", everyItem(is("PENDING"))));
+        // The other statement is the version-only query behind the ETag
+        assertEquals(2, QueryCountInspector.count());
+    }
+
+    @Test
+    void shouldReturn304ForUnchangedInvitationsUntilOneExpires() throws Exception {
+        String invitedToken = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+        User invitedUser = userRepository.findActiveByEmail("invited@example.com").orElseThrow();
+        invitedUser.setHousehold(null);
+        userRepository.save(invitedUser);
+        createUserAndGetToken("inviter@example.com", "John", "Doe");
+        User inviter = userRepository.findActiveByEmail("inviter@example.com").orElseThrow();
+        HouseholdInvitation invitation = householdInvitationRepository.save(HouseholdExtensions.toInvitationEntity(
+                inviter.getHousehold(), invitedUser, inviter));
+
+        String eTag = mockMvc.perform(get("/api/users/me/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        QueryCountInspector.reset();
+        mockMvc.perform(get("/api/users/me/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(1, QueryCountInspector.count());
+
+        // Passing the expiry date changes no version, but drops the invitation from the list
+        jdbcTemplate.update("UPDATE household_invitations SET expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), invitation.getId());
+
+        mockMvc.perform(get("/api/users/me/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
     @Test
     void shouldReturn401WhenNotAuthenticatedForGettingInvitations() throws Exception {
         // Try to get invitations without authentication
@@ -507,6 +636,79 @@ public class HouseholdInvitationIntegrationTest {
               .andExpect(jsonPath("$[*].status", everyItem(is("PENDING"))));
     }
 
+    @Test
+    void shouldPageInvitationHistoryWithCursorsAndStreamItAsNdjson() throws Exception {
+        // Arrange: three declined invitations created at the same instant, ordered by id, and one accepted
+        String invitedToken = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+        User invitedUser = userRepository.findActiveByEmail("invited@example.com").orElseThrow();
+        createUserAndGetToken("inviter@example.com", "John", "Doe");
+        User inviter = userRepository.findActiveByEmail("inviter@example.com").orElseThrow();
+        Long[] declinedIds = new Long[3];
+        for (int i = 0; i < declinedIds.length; i++) {
+            HouseholdInvitation invitation = HouseholdExtensions.toInvitationEntity(inviter.getHousehold(), invitedUser, inviter);
+            invitation.setStatus(HouseholdInvitation.InvitationStatus.DECLINED);
+            declinedIds[i] = householdInvitationRepository.save(invitation).getId();
+        }
+        HouseholdInvitation accepted = HouseholdExtensions.toInvitationEntity(inviter.getHousehold(), invitedUser, inviter);
+        accepted.setStatus(HouseholdInvitation.InvitationStatus.ACCEPTED);
+        householdInvitationRepository.save(accepted);
+        jdbcTemplate.update("UPDATE household_invitations SET created_at = '2024-03-01 10:00:00.123456'");
+
+        // Act & Assert: the first page links to the next one, which is the last
+        MvcResult firstPage = mockMvc.perform(get("/api/users/me/invitations/history?status=declined&limit=2")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(declinedIds[2].intValue(), declinedIds[1].intValue())))
+                .andExpect(jsonPath("$[0].createdAt", is("2024-03-01T10:00:00.123456")))
+                .andExpect(header().string(HttpHeaders.LINK, allOf(containsString("cursor="), endsWith("; rel=\"next\""))))
+                .andReturn();
+        String link = firstPage.getResponse().getHeader(HttpHeaders.LINK);
+        mockMvc.perform(get(URI.create(link.substring(1, link.indexOf('>'))))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(declinedIds[0].intValue())))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        MvcResult export = mockMvc.perform(get("/api/users/me/invitations/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .param("status", "DECLINED"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+        String[] lines = export.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(declinedIds[2].longValue(), objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals(declinedIds[0].longValue(), objectMapper.readTree(lines[2]).get("id").asLong());
+    }
+
+    @Test
+    void shouldReturn400ForInvalidInvitationHistoryRequest() throws Exception {
+        String token = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+
+        mockMvc.perform(get("/api/users/me/invitations/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Missing status")));
+        mockMvc.perform(get("/api/users/me/invitations/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Missing status")));
+        mockMvc.perform(get("/api/users/me/invitations/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("status", "ACCEPTED")
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor")));
+        mockMvc.perform(get("/api/users/me/invitations/history")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .param("status", "ACCEPTED")
+                .param("limit", "1001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid limit")));
+    }
+
     @Test
     void shouldAutomaticallyExpireInvitationsAndUpdateStatus() throws Exception {
         // Create user who will receive invitations
@@ -531,24 +733,115 @@ public class HouseholdInvitationIntegrationTest {
         HouseholdInvitation savedInvitation = householdInvitationRepository.findById(expiredInvitation.getId()).orElseThrow();
         assertEquals(HouseholdInvitation.InvitationStatus.PENDING, savedInvitation.getStatus());
 
-        // Get user's pending invitations - this should trigger automatic expiration
+        // Get user's pending invitations - expired invitations are filtered out without a write
         mockMvc.perform(get("/api/users/me/invitations")
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0))); // Should return empty list
+        assertEquals(HouseholdInvitation.InvitationStatus.PENDING,
+                householdInvitationRepository.findById(expiredInvitation.getId()).orElseThrow().getStatus());
+
+        // Run the background sweep
+        invitationExpirySweeper.sweep();
 
-        // Verify the invitation status was automatically updated to EXPIRED
+        // Verify the invitation status was updated to EXPIRED
         HouseholdInvitation updatedInvitation = householdInvitationRepository.findById(expiredInvitation.getId()).orElseThrow();
         assertEquals(HouseholdInvitation.InvitationStatus.EXPIRED, updatedInvitation.getStatus());
     }
 
+    @Test
+    void shouldExpireOutdatedInvitationsInBatches() throws Exception {
+        // Create inviter and three invited users with expired invitations, plus one still valid
+        createUserAndGetToken("inviter@example.com", "John", "Doe");
+        User inviter = userRepository.findActiveByEmail("inviter@example.com").orElseThrow();
+        HouseholdInvitation validInvitation = null;
+        for (int i = 0; i < 4; i++) {
+            createUserWithoutHousehold("invited" + i + "@example.com", "Jane", "Smith");
+            User invitedUser = userRepository.findActiveByEmail("invited" + i + "@example.com").orElseThrow();
+            HouseholdInvitation invitation = HouseholdExtensions.toInvitationEntity(
+                    inviter.getHousehold(), invitedUser, inviter);
+            if (i < 3) {
+                invitation.setExpiresAt(LocalDateTime.now().minusHours(1));
+            } else {
+                validInvitation = invitation;
+            }
+            householdInvitationRepository.save(invitation);
+        }
+
+        // Sweep with a batch size smaller than the number of outdated invitations
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        int expired = new InvitationExpirySweeper(dataService, event -> { }, meterRegistry, 2).sweep();
+
+        // Verify all outdated invitations were expired and the valid one was left alone
+        assertEquals(3, expired);
+        assertEquals(3, householdInvitationRepository.findAll().stream()
+                .filter(invitation -> invitation.getStatus() == HouseholdInvitation.InvitationStatus.EXPIRED)
+                .count());
+        assertEquals(HouseholdInvitation.InvitationStatus.PENDING,
+                householdInvitationRepository.findById(validInvitation.getId()).orElseThrow().getStatus());
+        assertEquals(3.0, meterRegistry.get("invitations.expiry.sweep.rows").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("invitations.expiry.sweep.duration").timer().count());
+    }
+
+    @Test
+    void shouldPushCreatedInvitationToInvitedUsersStream() throws Exception {
+        String invitedToken = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+        String inviterToken = createUserAndGetToken("inviter@example.com", "John", "Doe");
+        MvcResult stream = mockMvc.perform(get("/api/users/me/invitations/stream")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/households/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + inviterToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", "invited@example.com"))))
+                .andExpect(status().isCreated());
+
+        String events = awaitStreamContent(stream, "event:invitation-created");
+        assertTrue(events.contains("\"householdName\":\"John Doe's Household\""), events);
+        assertTrue(events.contains("\"status\":\"PENDING\""), events);
+    }
+
+    @Test
+    void shouldPushExpiryToInvitedUsersStream() throws Exception {
+        String invitedToken = createUserAndGetToken("invited@example.com", "Jane", "Smith");
+        User invitedUser = userRepository.findActiveByEmail("invited@example.com").orElseThrow();
+        createUserAndGetToken("inviter@example.com", "John", "Doe");
+        User inviter = userRepository.findActiveByEmail("inviter@example.com").orElseThrow();
+        HouseholdInvitation invitation = HouseholdExtensions.toInvitationEntity(
+                inviter.getHousehold(), invitedUser, inviter);
+        invitation.setExpiresAt(LocalDateTime.now().minusHours(1));
+        householdInvitationRepository.save(invitation);
+        MvcResult stream = mockMvc.perform(get("/api/users/me/invitations/stream")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        invitationExpirySweeper.sweep();
+
+        String events = awaitStreamContent(stream, "event:invitation-status-changed");
+        assertTrue(events.contains("{\"id\":" + invitation.getId() + ",\"status\":\"EXPIRED\"}"), events);
+    }
+
+    private String awaitStreamContent(MvcResult stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
     private String createUserAndGetToken(String email, String firstName, String lastName) throws Exception {
         // Create household first
         Household household = HouseholdExtensions.toEntity("Test Household");
         householdRepository.save(household);
 
         // Register user
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(Map.of(
                         "firstName", firstName,
@@ -558,7 +851,7 @@ public class HouseholdInvitationIntegrationTest {
                 .andExpect(status().isCreated());
 
         // Login to get token
-        var loginResponse = mockMvc.perform(post("/api/auth/login")
+        var loginResponse = performAsync(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(Map.of(
                         "email", email,
@@ -572,7 +865,7 @@ public class HouseholdInvitationIntegrationTest {
 
     private void createUserWithoutHousehold(String email, String firstName, String lastName) throws Exception {
         // Register user without associating with a household initially
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(Map.of(
                         "firstName", firstName,
@@ -587,4 +880,10 @@ public class HouseholdInvitationIntegrationTest {
         userRepository.save(user);
     }
 
-}
\ No newline at end of file
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.axelnyman.main.integration;
+
+import org.example.axelnyman.main.MainApplication;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.abstracts.IDomainService;
+import org.example.axelnyman.main.domain.dtos.HouseholdDtos.InvitationResponse;
+import org.example.axelnyman.main.domain.extensions.HouseholdExtensions;
+import org.example.axelnyman.main.domain.model.Household;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation;
+import org.example.axelnyman.main.domain.model.User;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
+import org.example.axelnyman.main.infrastructure.scheduling.InvitationExpirySweeper;
+import org.example.axelnyman.main.infrastructure.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two application instances against one database and checks that invitation events raised
+ * on one reach invitation streams open on the other, and reach each stream once.
+ */
+@Testcontainers
+public class InvitationStreamRelayIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldPushCreatedInvitationToStreamsOnEveryNode() throws Exception {
+        // Arrange: the invited user has a stream open on each node
+        User inviter = createUser();
+        User invited = createUser();
+        List<String> streamOnA = openStream(nodeA, invited);
+        List<String> streamOnB = openStream(nodeB, invited);
+
+        // Act
+        InvitationResponse invitation = nodeA.getBean(IDomainService.class).createHouseholdInvitation(
+                inviter.getHousehold().getId(), inviter.getId(), invited.getEmail());
+
+        // Assert
+        String event = "id:" + invitation.id();
+        awaitUntil(() -> count(streamOnB, event) == 1);
+        awaitUntil(() -> count(streamOnA, event) == 1);
+        assertTrue(streamOnB.contains("event:invitation-created"), streamOnB.toString());
+        assertTrue(streamOnB.stream().anyMatch(line -> line.startsWith("data:")
+                && line.contains("\"invitedEmail\":\"" + invited.getEmail() + "\"")), streamOnB.toString());
+        // The publishing node delivers locally and ignores its own relayed copy
+        Thread.sleep(500);
+        assertEquals(1, count(streamOnA, event));
+    }
+
+    @Test
+    void shouldPushExpirySweptOnOneNodeToStreamOnAnother() throws Exception {
+        // Arrange
+        User inviter = createUser();
+        User invited = createUser();
+        HouseholdInvitation invitation = HouseholdExtensions.toInvitationEntity(
+                inviter.getHousehold(), invited, inviter);
+        invitation.setExpiresAt(LocalDateTime.now().minusHours(1));
+        nodeA.getBean(HouseholdInvitationRepository.class).save(invitation);
+        List<String> streamOnB = openStream(nodeB, invited);
+
+        // Act: node A wins the sweep
+        nodeA.getBean(InvitationExpirySweeper.class).sweep();
+
+        // Assert
+        awaitUntil(() -> streamOnB.contains("data:{\"id\":" + invitation.getId() + ",\"status\":\"EXPIRED\"}"));
+        assertTrue(streamOnB.contains("event:invitation-status-changed"), streamOnB.toString());
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(MainApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.SERVLET)
+                .run("--spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "--spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--server.port=0");
+    }
+
+    private static User createUser() {
+        User user = new User();
+        user.setFirstName("Relay");
+        user.setLastName("Test");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setHashedPassword("hash");
+        user.setHousehold(new Household("Relay Household"));
+        return nodeA.getBean(IDataService.class).insertUserWithHousehold(user).orElseThrow();
+    }
+
+    /** Opens the user's invitation stream on a node and collects its lines as they arrive. */
+    private static List<String> openStream(ConfigurableApplicationContext node, User user) throws Exception {
+        String token = node.getBean(JwtTokenProvider.class)
+                .generateToken(user.getId(), user.getHousehold().getId(), user.getEmail());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:"
+                        + node.getEnvironment().getProperty("local.server.port") + "/api/users/me/invitations/stream"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+
+        List<String> lines = new CopyOnWriteArrayList<>();
+        Thread reader = new Thread(() -> response.body().forEach(lines::add), "invitation-stream-reader");
+        reader.setDaemon(true);
+        reader.start();
+        awaitUntil(() -> lines.contains(":connected"));
+        return lines;
+    }
+
+    private static long count(List<String> lines, String line) {
+        return lines.stream().filter(line::equals).count();
+    }
+
+    private static void awaitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.get()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met within " + TIMEOUT_MILLIS + " ms");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -13,6 +13,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -96,13 +99,13 @@ public class JwtAuthenticationFilterIntegrationTest {
         RegisterRequest request = new RegisterRequest(
                 "John", "Doe", "john.doe@example.com", "password123");
 
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
         LoginRequest loginDto = new LoginRequest("john.doe@example.com", "password123");
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
                 .andExpect(status().isOk());
@@ -243,14 +246,14 @@ public class JwtAuthenticationFilterIntegrationTest {
                 "Elvis", "Presley", "elvis@example.com", "password123");
 
         // Public endpoints should work regardless of token presence
-        mockMvc.perform(post("/api/auth/register")
+        performAsync(post("/api/auth/register")
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated());
 
         LoginRequest loginDto = new LoginRequest("elvis@example.com", "password123");
-        mockMvc.perform(post("/api/auth/login")
+        performAsync(post("/api/auth/login")
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDto)))
@@ -289,7 +292,7 @@ public class JwtAuthenticationFilterIntegrationTest {
     private String createUserAndGetToken(String email, String firstName, String lastName) throws Exception {
         RegisterRequest request = new RegisterRequest(firstName, lastName, email, "password123");
 
-        String responseContent = mockMvc.perform(post("/api/auth/register")
+        String responseContent = performAsync(post("/api/auth/register")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -300,4 +303,11 @@ public class JwtAuthenticationFilterIntegrationTest {
         var responseMap = objectMapper.readValue(responseContent, Map.class);
         return (String) responseMap.get("token");
     }
-}
\ No newline at end of file
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.axelnyman.main.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdRepository;
+import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the application with replica routing enabled against one PostgreSQL container and two logins:
+ * the container user as primary and a SELECT-only user as replica, so any write that reaches the
+ * replica fails.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+public class ReadReplicaRoutingIntegrationTest {
+
+    private static final String REPLICA_USERNAME = "replica_reader";
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test")
+            .withInitScript("db/replica-role.sql");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("datasource.replica.enabled", () -> "true");
+        registry.add("datasource.replica.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("datasource.replica.username", () -> REPLICA_USERNAME);
+        registry.add("datasource.replica.password", () -> "replica");
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseholdRepository householdRepository;
+
+    @Autowired
+    private HouseholdInvitationRepository householdInvitationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.datasource.username}")
+    private String primaryUsername;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+
+        householdInvitationRepository.deleteAll();
+        userRepository.deleteAll();
+        householdRepository.deleteAll();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        assertEquals(REPLICA_USERNAME, inTransaction(true, this::currentDatabaseUser));
+        assertEquals(primaryUsername, inTransaction(false, this::currentDatabaseUser));
+        assertEquals(primaryUsername, currentDatabaseUser());
+    }
+
+    @Test
+    void shouldRejectWritesOnReplica() {
+        assertThrows(DataAccessException.class, () -> inTransaction(true, () -> jdbcTemplate.update(
+                "INSERT INTO households (name, created_at, updated_at) VALUES ('Replica', now(), now())")));
+        assertEquals(0, householdRepository.count());
+    }
+
+    @Test
+    void shouldServeApiWithWritesOnPrimaryAndReadsOnReplica() throws Exception {
+        // Writes: the replica login cannot insert or update, so these only succeed on the primary
+        String inviterToken = registerAndGetToken("inviter@example.com", "John", "Doe");
+        String invitedToken = registerAndGetToken("invited@example.com", "Jane", "Smith");
+
+        mockMvc.perform(put("/api/households")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + inviterToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", "Renamed Household"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Renamed Household")));
+
+        mockMvc.perform(post("/api/households/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + inviterToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("email", "invited@example.com"))))
+                .andExpect(status().isCreated());
+
+        // Reads
+        mockMvc.perform(get("/api/users/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + inviterToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.household.name", is("Renamed Household")));
+
+        mockMvc.perform(get("/api/users/me/invitations")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + invitedToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].householdName", is("Renamed Household")));
+
+        assertTrue(replicaDataSource.getHikariPoolMXBean().getTotalConnections() > 0,
+                "Expected reads to open connections on the replica pool");
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> work) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private String currentDatabaseUser() {
+        return jdbcTemplate.queryForObject("SELECT current_user", String.class);
+    }
+
+    private String registerAndGetToken(String email, String firstName, String lastName) throws Exception {
+        MvcResult result = performAsync(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of(
+                        "firstName", firstName,
+                        "lastName", lastName,
+                        "email", email,
+                        "password", "password123"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,328 @@
+package org.example.axelnyman.main.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.axelnyman.main.domain.dtos.AccountDtos.NetWorthGranularity;
+import org.example.axelnyman.main.domain.model.HouseholdInvitation.InvitationStatus;
+import org.example.axelnyman.main.infrastructure.data.context.AccountBalanceRepository;
+import org.example.axelnyman.main.infrastructure.data.context.BankAccountRepository;
+import org.example.axelnyman.main.infrastructure.data.context.HouseholdInvitationRepository;
+import org.example.axelnyman.main.infrastructure.data.context.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every {@code @Query} method of the user, invitation and account repositories against a seeded
+ * dataset, captures the SQL Hibernate generates and asserts that its generic plan (the plan
+ * reused for prepared statements) reads the tables through an index rather than a sequential scan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers
+public class RepositoryIndexUsageIntegrationTest {
+
+    private static final int HOUSEHOLDS = 1_000;
+    private static final int USERS = 20_000;
+    private static final int ACCOUNTS = 20_000;
+    private static final int BALANCE_DAYS = 10;
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HouseholdInvitationRepository householdInvitationRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Autowired
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM account_monthly_balances");
+        jdbcTemplate.update("DELETE FROM account_latest_balances");
+        jdbcTemplate.update("DELETE FROM account_balances");
+        jdbcTemplate.update("DELETE FROM user_bank_accounts");
+        jdbcTemplate.update("DELETE FROM bank_accounts");
+        jdbcTemplate.update("DELETE FROM household_invitations");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM households");
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldUseIndexesForEveryRepositoryQuery() throws Exception {
+        // Arrange
+        seedDataset();
+        LocalDateTime now = LocalDateTime.now();
+        // Balance inserts are checked against the account foreign key, so they need an existing account
+        Long accountId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM bank_accounts", Long.class);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.existsByEmailIncludingDeleted",
+                () -> userRepository.existsByEmailIncludingDeleted("user42@example.com"));
+        queries.put("UserRepository.findActiveByEmail",
+                () -> userRepository.findActiveByEmail("user42@example.com"));
+        queries.put("UserRepository.findActiveLoginCredentialsByEmail",
+                () -> userRepository.findActiveLoginCredentialsByEmail("user42@example.com"));
+        queries.put("UserRepository.findProfileVersionTagById",
+                () -> userRepository.findProfileVersionTagById(42L));
+        queries.put("UserRepository.findResponseById",
+                () -> userRepository.findResponseById(42L));
+        queries.put("UserRepository.findActiveResponsesByHouseholdId",
+                () -> userRepository.findActiveResponsesByHouseholdId(42L));
+        queries.put("UserRepository.findActiveResponseByIdAndHouseholdId",
+                () -> userRepository.findActiveResponseByIdAndHouseholdId(42L, 42L));
+        queries.put("UserRepository.findActiveByIdAndHouseholdIdWithHousehold",
+                () -> userRepository.findActiveByIdAndHouseholdIdWithHousehold(42L, 42L));
+        queries.put("UserRepository.replaceHashedPassword",
+                () -> userRepository.replaceHashedPassword(42L, "hash", "new-hash"));
+        queries.put("HouseholdInvitationRepository.findResponsePageByInvitedUserAndStatus",
+                () -> householdInvitationRepository.findResponsePageByInvitedUserAndStatus(
+                        42L, InvitationStatus.ACCEPTED, Limit.of(100)));
+        queries.put("HouseholdInvitationRepository.findResponsePageByInvitedUserAndStatusAfter",
+                () -> householdInvitationRepository.findResponsePageByInvitedUserAndStatusAfter(
+                        42L, InvitationStatus.ACCEPTED, now, 42L, Limit.of(100)));
+        queries.put("HouseholdInvitationRepository.streamResponsesByInvitedUserAndStatus",
+                () -> {
+                    try (Stream<?> invitations = householdInvitationRepository.streamResponsesByInvitedUserAndStatus(
+                            42L, InvitationStatus.ACCEPTED)) {
+                        invitations.findFirst();
+                    }
+                });
+        queries.put("HouseholdInvitationRepository.expirePendingInvitationsBatch",
+                () -> householdInvitationRepository.expirePendingInvitationsBatch(now, 500));
+        queries.put("HouseholdInvitationRepository.findPendingNonExpiredResponsesByInvitedUser",
+                () -> householdInvitationRepository.findPendingNonExpiredResponsesByInvitedUser(42L, InvitationStatus.PENDING, now));
+        queries.put("HouseholdInvitationRepository.findPendingNonExpiredVersionTagByInvitedUser",
+                () -> householdInvitationRepository.findPendingNonExpiredVersionTagByInvitedUser(42L, now));
+        queries.put("BankAccountRepository.existsActiveByIdAndHouseholdId",
+                () -> bankAccountRepository.existsActiveByIdAndHouseholdId(accountId, 42L));
+        queries.put("BankAccountRepository.findActiveOverviewsByHouseholdId",
+                () -> bankAccountRepository.findActiveOverviewsByHouseholdId(42L));
+        queries.put("BankAccountRepository.findIdsAfter",
+                () -> bankAccountRepository.findIdsAfter(accountId, Limit.of(100)));
+        queries.put("AccountBalanceRepository.upsertBalance",
+                () -> accountBalanceRepository.upsertBalance(accountId, BigDecimal.ONE, LocalDate.now()));
+        queries.put("AccountBalanceRepository.upsertLatestBalance",
+                () -> accountBalanceRepository.upsertLatestBalance(accountId, BigDecimal.ONE, LocalDate.now()));
+        queries.put("AccountBalanceRepository.findResponsePageByAccountId",
+                () -> accountBalanceRepository.findResponsePageByAccountId(accountId, Limit.of(100)));
+        queries.put("AccountBalanceRepository.findResponsePageByAccountIdAfter",
+                () -> accountBalanceRepository.findResponsePageByAccountIdAfter(accountId, LocalDate.now(), Limit.of(100)));
+        queries.put("AccountBalanceRepository.streamResponsesByAccountId",
+                () -> {
+                    try (Stream<?> balances = accountBalanceRepository.streamResponsesByAccountId(accountId)) {
+                        balances.findFirst();
+                    }
+                });
+        queries.put("AccountBalanceRepository.findLatestResponseByAccountId",
+                () -> accountBalanceRepository.findLatestResponseByAccountId(accountId));
+        queries.put("AccountBalanceRepository.findNetWorthPointsByHouseholdId",
+                () -> accountBalanceRepository.findNetWorthPointsByHouseholdId(
+                        42L, LocalDate.now().minusYears(1), LocalDate.now(), NetWorthGranularity.MONTH.unit()));
+        queries.put("AccountBalanceRepository.refreshMonthlyBalances",
+                () -> accountBalanceRepository.refreshMonthlyBalances(accountId, LocalDate.now(), LocalDate.now()));
+        queries.put("AccountBalanceRepository.deleteEmptyMonthlyBalances",
+                () -> accountBalanceRepository.deleteEmptyMonthlyBalances(
+                        accountId, LocalDate.now().minusYears(1), LocalDate.now()));
+        queries.put("AccountBalanceRepository.findMonthlyBalancesByHouseholdId",
+                () -> accountBalanceRepository.findMonthlyBalancesByHouseholdId(
+                        42L, LocalDate.now().minusYears(1).withDayOfMonth(1), LocalDate.now().withDayOfMonth(1)));
+        queries.put("AccountBalanceRepository.findMonthlyNetWorthPointsByHouseholdId",
+                () -> accountBalanceRepository.findMonthlyNetWorthPointsByHouseholdId(
+                        42L, LocalDate.of(2023, 3, 10), LocalDate.of(2024, 3, 20),
+                        LocalDate.of(2023, 4, 1), LocalDate.of(2024, 2, 29)));
+
+        // Every @Query method must be covered, so a new query cannot skip this check
+        assertEquals(queryMethods(UserRepository.class, HouseholdInvitationRepository.class,
+                BankAccountRepository.class, AccountBalanceRepository.class), new TreeSet<>(queries.keySet()));
+
+        // Act
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            List<String> statements = captureStatements(query.getValue());
+            assertFalse(statements.isEmpty(), "No SQL captured for " + query.getKey());
+            for (String sql : statements) {
+                JsonNode plan = explainGenericPlan(sql);
+                Set<String> sequentiallyScanned = new TreeSet<>();
+                collectSequentialScans(plan, sequentiallyScanned);
+                if (!sequentiallyScanned.isEmpty()) {
+                    violations.add(query.getKey() + " scans " + sequentiallyScanned + " sequentially:\n"
+                            + plan.toPrettyString());
+                }
+            }
+        }
+
+        // Assert
+        assertTrue(violations.isEmpty(), String.join("\n\n", violations));
+    }
+
+    private void seedDataset() {
+        jdbcTemplate.update("INSERT INTO households (name, created_at, updated_at) " +
+                "SELECT 'Household ' || g, now(), now() FROM generate_series(1, ?) g", HOUSEHOLDS);
+        // Sequence ids are allocated in blocks, so rows are matched by position rather than by id arithmetic
+        jdbcTemplate.update("INSERT INTO users (first_name, last_name, email, hashed_password, household_id, " +
+                "deleted_at, created_at, updated_at) " +
+                "SELECT 'First', 'Last', 'user' || g || '@example.com', 'hash', h.id, " +
+                "CASE WHEN g % 10 = 0 THEN now() END, now(), now() " +
+                "FROM generate_series(1, ?) g " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS position FROM households) h " +
+                "ON h.position = g % ?",
+                USERS, HOUSEHOLDS);
+        // Fresh statistics keep the planner from nested-looping the positional self-join below
+        jdbcTemplate.execute("ANALYZE users");
+        // One invitation per user: 5% pending, spread over past and future expiry dates
+        jdbcTemplate.update("INSERT INTO household_invitations (household_id, invited_user_id, invited_by_user_id, " +
+                "token, status, expires_at, created_at, updated_at) " +
+                "SELECT invited.household_id, invited.id, inviter.id, 'token-' || invited.position, " +
+                "CASE WHEN invited.position % 20 = 0 THEN 'PENDING' " +
+                "ELSE (ARRAY['ACCEPTED', 'DECLINED', 'EXPIRED'])[invited.position % 3 + 1] END, " +
+                "now() + (invited.position % 14 - 7) * interval '1 day', now(), now() " +
+                "FROM (SELECT id, household_id, row_number() OVER (ORDER BY id) AS position FROM users " +
+                "WHERE hashed_password = 'hash') invited " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) AS position FROM users " +
+                "WHERE hashed_password = 'hash') inviter " +
+                "ON inviter.position = invited.position % ? + 1",
+                HOUSEHOLDS);
+        // One account per user, each with ten days of balances
+        jdbcTemplate.update("INSERT INTO bank_accounts (account_name, is_active, created_at, updated_at) " +
+                "SELECT 'Account ' || g, true, now(), now() FROM generate_series(1, ?) g", ACCOUNTS);
+        jdbcTemplate.update("INSERT INTO user_bank_accounts (bank_account_id, user_id) " +
+                "SELECT a.id, u.id " +
+                "FROM (SELECT id, row_number() OVER (ORDER BY id) AS position FROM bank_accounts) a " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) AS position FROM users " +
+                "WHERE hashed_password = 'hash') u ON u.position = a.position");
+        jdbcTemplate.update("INSERT INTO account_balances (account_id, balance_amount, balance_date, created_at) " +
+                "SELECT a.id, d, current_date - d, now() FROM bank_accounts a, generate_series(0, ? - 1) d",
+                BALANCE_DAYS);
+        jdbcTemplate.update("INSERT INTO account_latest_balances (account_id, balance_amount, balance_date, updated_at) " +
+                "SELECT id, 0, current_date, now() FROM bank_accounts");
+        jdbcTemplate.update("INSERT INTO account_monthly_balances (account_id, balance_month, closing_balance, " +
+                "closing_date, min_balance, max_balance, balance_sum, balance_count, updated_at) " +
+                "SELECT account_id, CAST(date_trunc('month', CAST(balance_date AS timestamp)) AS date) AS balance_month, " +
+                "MIN(balance_amount), MAX(balance_date), MIN(balance_amount), MAX(balance_amount), " +
+                "SUM(balance_amount), COUNT(*), now() FROM account_balances GROUP BY account_id, balance_month");
+        jdbcTemplate.execute("ANALYZE households, users, household_invitations, bank_accounts, user_bank_accounts, " +
+                "account_balances, account_latest_balances, account_monthly_balances");
+    }
+
+    private static Set<String> queryMethods(Class<?>... repositories) {
+        return Arrays.stream(repositories)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> method.isAnnotationPresent(Query.class))
+                        .map(Method::getName)
+                        .map(name -> repository.getSimpleName() + "." + name))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private List<String> captureStatements(Runnable query) {
+        return transactionTemplate.execute(status -> {
+            QueryCountInspector.reset();
+            query.run();
+            List<String> statements = QueryCountInspector.statements();
+            // Modifying queries only need their plan, not their effect
+            status.setRollbackOnly();
+            return statements;
+        });
+    }
+
+    private JsonNode explainGenericPlan(String sql) throws Exception {
+        String[] parts = sql.split("\\?", -1);
+        StringBuilder numbered = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            numbered.append('$').append(i).append(parts[i]);
+        }
+        String nullArguments = String.join(", ", Collections.nCopies(parts.length - 1, "NULL"));
+
+        String planJson = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE plan_check AS " + numbered);
+                try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE plan_check"
+                        + (nullArguments.isEmpty() ? "" : "(" + nullArguments + ")"))) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                    statement.execute("RESET plan_cache_mode");
+                }
+            }
+        });
+        return objectMapper.readTree(planJson).get(0).get("Plan");
+    }
+
+    private static void collectSequentialScans(JsonNode node, Set<String> relations) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            relations.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, relations);
+        }
+    }
+}
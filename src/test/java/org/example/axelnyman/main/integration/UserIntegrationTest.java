@@ -13,6 +13,9 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -20,6 +23,8 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -278,6 +283,98 @@ public class UserIntegrationTest {
                                 .andExpect(jsonPath("$.hashedPassword").doesNotExist());
         }
 
+        @Test
+        void shouldReadUserEndpointsWithSingleQuery() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                User savedUser = userRepository.findAll().get(0);
+                userRepository.save(new User(
+                                "Jane",
+                                "Smith",
+                                "jane.smith@example.com",
+                                "hashedPassword456",
+                                savedUser.getHousehold()));
+                String householdName = householdRepository.findAll().get(0).getName();
+
+                // Each endpoint selects the response columns and the household name in one statement,
+                // after a version-only statement for the ETag where it has one
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/users/me")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.household.name", is(householdName)));
+                assertEquals(2, QueryCountInspector.count());
+                assertThat(QueryCountInspector.statements().get(0), containsString("version"));
+
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/users/" + savedUser.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.household.name", is(householdName)));
+                assertEquals(1, QueryCountInspector.count());
+
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(2)))
+                                .andExpect(jsonPath("$[*].household.name", everyItem(is(householdName))));
+                assertEquals(2, QueryCountInspector.count());
+                assertThat(QueryCountInspector.statements().get(0), containsString("version"));
+        }
+
+        @Test
+        void shouldReturn304ForUnchangedProfileWithVersionQueryOnly() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                String eTag = mockMvc.perform(get("/api/users/me")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                assertThat(eTag, startsWith("W/\""));
+
+                // Only the version is read; the user is neither loaded nor serialized
+                QueryCountInspector.reset();
+                mockMvc.perform(get("/api/users/me")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                                .andExpect(content().string(""));
+                assertEquals(1, QueryCountInspector.count());
+                assertThat(QueryCountInspector.statements().get(0), not(containsString("first_name")));
+        }
+
+        @Test
+        void shouldChangeHouseholdUsersETagWhenMemberIsDeleted() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                User savedUser = userRepository.findAll().get(0);
+                User jane = userRepository.save(new User(
+                                "Jane",
+                                "Smith",
+                                "jane.smith@example.com",
+                                "hashedPassword456",
+                                savedUser.getHousehold()));
+                String eTag = mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isNotModified());
+
+                mockMvc.perform(delete("/api/users/" + jane.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isNoContent());
+
+                mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                                .andExpect(jsonPath("$", hasSize(1)));
+        }
+
         @Test
         void shouldReturn401WhenNotAuthenticated() throws Exception {
                 mockMvc.perform(get("/api/users/me"))
@@ -294,10 +391,37 @@ public class UserIntegrationTest {
                                 .andExpect(status().isNoContent());
         }
 
+        @Test
+        void shouldDropDeletedUserFromCachedHouseholdUsers() throws Exception {
+                String token = createUserAndGetToken("john.doe@example.com", "John", "Doe");
+                User savedUser = userRepository.findAll().get(0);
+                User jane = userRepository.save(new User(
+                                "Jane",
+                                "Smith",
+                                "jane.smith@example.com",
+                                "hashedPassword456",
+                                savedUser.getHousehold()));
+
+                // Populate the member list cache
+                mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(jsonPath("$", hasSize(2)));
+
+                mockMvc.perform(delete("/api/users/" + jane.getId())
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isNoContent());
+
+                mockMvc.perform(get("/api/users")
+                                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$", hasSize(1)))
+                                .andExpect(jsonPath("$[0].firstName", is("John")));
+        }
+
         private String createUserAndGetToken(String email, String firstName, String lastName) throws Exception {
                 RegisterRequest request = new RegisterRequest(firstName, lastName, email, "password123");
 
-                String responseContent = mockMvc.perform(post("/api/auth/register")
+                String responseContent = performAsync(post("/api/auth/register")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(request)))
                                 .andExpect(status().isCreated())
@@ -308,4 +432,11 @@ public class UserIntegrationTest {
                 var responseMap = objectMapper.readValue(responseContent, Map.class);
                 return (String) responseMap.get("token");
         }
+
+        private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+                MvcResult result = mockMvc.perform(requestBuilder)
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                return mockMvc.perform(asyncDispatch(result));
+        }
 }
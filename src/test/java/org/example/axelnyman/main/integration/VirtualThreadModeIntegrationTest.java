@@ -0,0 +1,137 @@
+package org.example.axelnyman.main.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.axelnyman.main.domain.abstracts.IDataService;
+import org.example.axelnyman.main.domain.dtos.UserDtos.RegisterRequest;
+import org.example.axelnyman.main.infrastructure.concurrency.DataAccessBulkhead;
+import org.example.axelnyman.main.infrastructure.concurrency.VirtualThreadPinningMonitor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Starts the application in virtual-thread mode and checks that data access goes through the
+ * {@link DataAccessBulkhead} and that the {@link VirtualThreadPinningMonitor} records pinnings
+ * wherever the runtime has virtual threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = {
+                        "spring.threads.virtual.enabled=true",
+                        "virtual-threads.data-access.max-concurrency=4"
+                })
+@ActiveProfiles("test")
+@Testcontainers
+public class VirtualThreadModeIntegrationTest {
+
+    @Container
+    @SuppressWarnings("resource")
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testdb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private IDataService dataService;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @AfterAll
+    static void cleanup() {
+        if (postgreSQLContainer != null && postgreSQLContainer.isRunning()) {
+            postgreSQLContainer.stop();
+        }
+    }
+
+    @Test
+    void shouldRouteDataAccessThroughBulkhead() throws Exception {
+        // Arrange
+        assertTrue(dataService instanceof Advised);
+        assertTrue(Arrays.stream(((Advised) dataService).getAdvisors())
+                .anyMatch(advisor -> advisor.getAdvice() instanceof DataAccessBulkhead));
+
+        // Act: a signup and an authenticated read, each using the data service
+        String response = performAsync(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(
+                        "Virtual", "Thread", "virtual.thread@example.com", "password123"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode body = objectMapper.readTree(response);
+        mockMvc.perform(get("/api/households")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + body.get("token").asText()))
+                .andExpect(status().isOk());
+
+        // Assert: every permit was given back and nothing was turned away
+        assertEquals(4.0, meterRegistry.get("data.access.bulkhead.available").gauge().value());
+        assertEquals(0.0, meterRegistry.get("data.access.bulkhead.waiting").gauge().value());
+        assertEquals(0.0, meterRegistry.get("data.access.bulkhead.rejected").counter().count());
+    }
+
+    @Test
+    void shouldRecordPinningWhenRuntimeHasVirtualThreads() {
+        // The monitor is created in this mode on any runtime, but only Java 21+ has the event to record
+        assertEquals(Runtime.version().feature() >= 21, pinningMonitor.isRunning());
+        assertNotNull(meterRegistry.find("jvm.threads.virtual.pinned").timer());
+    }
+
+    private ResultActions performAsync(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,5 @@
+-- Read-only login used as the "replica" in ReadReplicaRoutingIntegrationTest.
+-- It can read every table the migrations create but cannot write, so a write routed to it fails.
+CREATE ROLE replica_reader LOGIN PASSWORD 'replica';
+GRANT USAGE ON SCHEMA public TO replica_reader;
+ALTER DEFAULT PRIVILEGES IN SCHEMA public GRANT SELECT ON TABLES TO replica_reader;